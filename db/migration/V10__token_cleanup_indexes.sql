@@ -0,0 +1,4 @@
+-- keyset order of the batched token cleanup
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_tokens_expires_at ON auth_refresh_tokens (expires_at, id);
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_tokens_revoked_created ON auth_refresh_tokens (created_at, id) WHERE revoked;
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_expires_at ON password_reset_tokens (expires_at, id);
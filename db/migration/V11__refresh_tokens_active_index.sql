@@ -0,0 +1,9 @@
+-- active sessions per user: list, revoke one, revoke all
+-- partial, so revoked history never enters it, and covering, so listing is an index-only scan
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_tokens_active
+    ON auth_refresh_tokens (user_id, expires_at)
+    INCLUDE (jti, client_id, created_at, last_used_at, ip_address, user_agent)
+    WHERE revoked = false;
+
+-- superseded by the partial index above
+DROP INDEX IF EXISTS idx_auth_refresh_tokens_user_id;
@@ -0,0 +1,28 @@
+-- every refresh token belongs to the family (session) started by its first token;
+-- reuse detection revokes that family instead of every session of the user
+ALTER TABLE auth_refresh_tokens ADD COLUMN family_id UUID;
+
+-- existing rotation chains: a root is a token that replaced nothing, its descendants follow replaced_by_jti
+WITH RECURSIVE chain (jti, replaced_by_jti, family_id) AS (
+    SELECT t.jti, t.replaced_by_jti, t.jti
+    FROM auth_refresh_tokens t
+    WHERE NOT EXISTS (SELECT 1 FROM auth_refresh_tokens p WHERE p.replaced_by_jti = t.jti)
+    UNION ALL
+    SELECT c.jti, c.replaced_by_jti, chain.family_id
+    FROM auth_refresh_tokens c
+    JOIN chain ON c.jti = chain.replaced_by_jti
+)
+UPDATE auth_refresh_tokens t
+SET family_id = chain.family_id
+FROM chain
+WHERE t.jti = chain.jti;
+
+-- defensive: only a replaced_by_jti cycle would leave a row without a root
+UPDATE auth_refresh_tokens SET family_id = jti WHERE family_id IS NULL;
+
+ALTER TABLE auth_refresh_tokens ALTER COLUMN family_id SET NOT NULL;
+
+-- live tokens of a family, usually exactly one
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_tokens_family_active
+    ON auth_refresh_tokens (family_id)
+    WHERE revoked = false;
@@ -0,0 +1,10 @@
+-- access tokens revoked before their exp, keyed by the jti claim; rows are useless once expires_at passes
+CREATE TABLE IF NOT EXISTS revoked_access_tokens
+(
+    id         UUID PRIMARY KEY, -- the token's jti
+    expires_at TIMESTAMPTZ NOT NULL,
+    revoked_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- loading the live list and the batched cleanup
+CREATE INDEX IF NOT EXISTS idx_revoked_access_tokens_expires_at ON revoked_access_tokens (expires_at, id);
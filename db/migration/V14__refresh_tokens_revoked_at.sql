@@ -0,0 +1,13 @@
+-- revoked tokens are kept for cleanup.tokens.revoked-retention after their revocation, not after their creation,
+-- so a token rotated late in its life is still recognised when it is replayed
+ALTER TABLE auth_refresh_tokens ADD COLUMN revoked_at TIMESTAMPTZ;
+
+-- rotated tokens were revoked when they were last used; for the others the time is unknown, so their retention starts now
+UPDATE auth_refresh_tokens
+SET revoked_at = CASE WHEN replaced_by_jti IS NOT NULL AND last_used_at IS NOT NULL THEN last_used_at ELSE now() END
+WHERE revoked;
+
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_tokens_revoked_at ON auth_refresh_tokens (revoked_at, id) WHERE revoked;
+
+-- superseded by the index above
+DROP INDEX IF EXISTS idx_auth_refresh_tokens_revoked_created;
@@ -0,0 +1,3 @@
+-- Keyset pagination seeks on (sort key, id). username and email are unique, so their
+-- unique indexes already serve the seek; role needs the id tiebreaker in the index.
+CREATE INDEX IF NOT EXISTS idx_users_role_id ON users (role, id);
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS event_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    topic           VARCHAR(255) NOT NULL,
+    message_key     VARCHAR(255),                -- aggregate id, events with the same key are relayed in order
+    payload         TEXT         NOT NULL,
+    created_at      timestamptz  NOT NULL DEFAULT now(),
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at timestamptz  NOT NULL DEFAULT now(),
+    last_error      TEXT
+);
+
+CREATE INDEX idx_event_outbox_next_attempt ON event_outbox (next_attempt_at, id);
+CREATE INDEX idx_event_outbox_key_id ON event_outbox (message_key, id);
+
+CREATE TABLE IF NOT EXISTS scheduler_locks
+(
+    name         VARCHAR(64) PRIMARY KEY,
+    locked_until timestamptz  NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL
+);
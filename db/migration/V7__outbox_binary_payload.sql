@@ -0,0 +1,5 @@
+ALTER TABLE event_outbox
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+
+ALTER TABLE event_outbox
+    ADD COLUMN IF NOT EXISTS content_type VARCHAR(64) NOT NULL DEFAULT 'application/json';
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS rate_limit_buckets
+(
+    id         VARCHAR(255) PRIMARY KEY,
+    state      BYTEA        NOT NULL,              -- serialized Bucket4j state, swapped with compare-and-set
+    expires_at timestamptz  NOT NULL               -- bucket is full again after this, row can be purged
+);
+
+CREATE INDEX idx_rate_limit_buckets_expires_at ON rate_limit_buckets (expires_at);
@@ -0,0 +1,29 @@
+-- token_hash: hex TEXT (64 chars + header) -> raw 32 byte SHA-256
+-- user_id:    email in a VARCHAR -> the numeric users.id, the email moves to user_email (access token subject)
+
+ALTER TABLE auth_refresh_tokens DROP CONSTRAINT IF EXISTS fk_user;
+ALTER TABLE auth_refresh_tokens RENAME COLUMN user_id TO user_email;
+ALTER TABLE auth_refresh_tokens ADD COLUMN user_id BIGINT;
+
+UPDATE auth_refresh_tokens t
+SET user_id = u.id
+FROM users u
+WHERE u.email = t.user_email;
+
+-- tokens of users that no longer exist can never be refreshed
+DELETE FROM auth_refresh_tokens WHERE user_id IS NULL;
+
+ALTER TABLE auth_refresh_tokens
+    ALTER COLUMN user_id SET NOT NULL,
+    ADD CONSTRAINT fk_auth_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+ALTER TABLE auth_refresh_tokens
+    ALTER COLUMN token_hash TYPE BYTEA USING decode(token_hash, 'hex'),
+    ADD CONSTRAINT chk_auth_refresh_tokens_hash_len CHECK (octet_length(token_hash) = 32);
+
+DROP INDEX IF EXISTS idx_auth_refresh_tokens_tokenhash;
+DROP INDEX IF EXISTS idx_auth_refresh_tokens_user_id;
+DROP INDEX IF EXISTS idx_auth_refresh_tokens_jti; -- duplicate of the UNIQUE constraint on jti
+
+CREATE UNIQUE INDEX idx_auth_refresh_tokens_token_hash ON auth_refresh_tokens (token_hash);
+CREATE INDEX idx_auth_refresh_tokens_user_id ON auth_refresh_tokens (user_id);
@@ -0,0 +1,58 @@
+-- Optional: hash partition auth_refresh_tokens by user_id.
+-- Not a Flyway migration; run it by hand (psql -v partitions=16 -f ...) once V10 is applied,
+-- preferably in a maintenance window since it rewrites the table.
+--
+-- Every partition has its own, smaller indexes and is vacuumed on its own, which keeps
+-- rotation-heavy workloads (one INSERT and one UPDATE per refresh) from bloating one huge heap.
+-- Per-user queries (sessions, revoke all) touch a single partition. Lookups by token_hash have
+-- no partition key and probe every partition's index, so keep the partition count modest.
+-- Unique constraints must contain the partition key, so token_hash and jti are only unique
+-- per user here; with 32 random bytes / random UUIDs collisions are not a practical concern.
+
+\if :{?partitions}
+\else
+    \set partitions 16
+\endif
+
+BEGIN;
+
+ALTER TABLE auth_refresh_tokens RENAME TO auth_refresh_tokens_unpartitioned;
+
+CREATE TABLE auth_refresh_tokens
+(
+    id              UUID         NOT NULL DEFAULT gen_random_uuid(),
+    jti             UUID         NOT NULL,
+    user_id         BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    user_email      VARCHAR      NOT NULL,
+    client_id       TEXT,
+    token_hash      BYTEA        NOT NULL CHECK (octet_length(token_hash) = 32),
+    created_at      timestamptz  NOT NULL DEFAULT now(),
+    last_used_at    timestamptz,
+    expires_at      timestamptz  NOT NULL,
+    revoked         boolean      NOT NULL DEFAULT false,
+    replaced_by_jti UUID,
+    ip_address      TEXT,
+    user_agent      TEXT,
+    PRIMARY KEY (user_id, id),
+    UNIQUE (user_id, jti)
+) PARTITION BY HASH (user_id);
+
+SELECT format('CREATE TABLE auth_refresh_tokens_p%s PARTITION OF auth_refresh_tokens FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+              r, :partitions, r)
+FROM generate_series(0, :partitions - 1) AS r
+\gexec
+
+CREATE INDEX idx_auth_refresh_tokens_p_token_hash ON auth_refresh_tokens (token_hash);
+CREATE INDEX idx_auth_refresh_tokens_p_jti ON auth_refresh_tokens (jti);
+CREATE INDEX idx_auth_refresh_tokens_p_expires_at ON auth_refresh_tokens (expires_at, id);
+CREATE INDEX idx_auth_refresh_tokens_p_revoked_created ON auth_refresh_tokens (created_at, id) WHERE revoked;
+
+INSERT INTO auth_refresh_tokens
+SELECT id, jti, user_id, user_email, client_id, token_hash, created_at, last_used_at,
+       expires_at, revoked, replaced_by_jti, ip_address, user_agent
+FROM auth_refresh_tokens_unpartitioned
+WHERE expires_at > now();
+
+DROP TABLE auth_refresh_tokens_unpartitioned;
+
+COMMIT;
@@ -0,0 +1,146 @@
+package dev.api.auth.authservice.api.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh token lookup by hash against a PostgreSQL table of {@code rows} tokens, for the former
+ * layout (hex {@code TEXT} hash, email {@code user_id}, plain index) and the current one (32-byte
+ * {@code BYTEA} hash, {@code BIGINT} user id, unique index). Each lookup hits a random existing token.
+ * <p>
+ * Needs a reachable database; tables are created in schema {@code bench} on first use and kept, so
+ * later runs skip the load:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="RefreshTokenLookupBenchmark -p jdbcUrl=jdbc:postgresql://localhost:5432/springmvc"}
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class RefreshTokenLookupBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Database {
+
+		@Param("jdbc:postgresql://localhost:5432/springmvc")
+		public String jdbcUrl;
+
+		@Param("postgres")
+		public String user;
+
+		@Param("postgres")
+		public String password;
+
+		@Param("10000000")
+		public long rows;
+
+		@Param({"hex", "binary"})
+		public String layout;
+
+		String table;
+
+		@Setup(Level.Trial)
+		public void createTable() throws SQLException {
+			table = "bench.refresh_tokens_" + layout + "_" + rows;
+			try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+				statement.execute("CREATE SCHEMA IF NOT EXISTS bench");
+				try (ResultSet exists = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+					exists.next();
+					if (!exists.getBoolean(1)) load(statement);
+				}
+				try (ResultSet size = statement.executeQuery(
+						"SELECT pg_size_pretty(pg_relation_size('" + table + "')), pg_size_pretty(pg_relation_size('" + table + "_hash_idx'))")) {
+					size.next();
+					System.out.println(table + ": table " + size.getString(1) + ", hash index " + size.getString(2));
+				}
+			}
+		}
+
+		private void load(Statement statement) throws SQLException {
+			boolean hex = layout.equals("hex");
+			statement.execute("CREATE TABLE " + table + " ("
+					+ "id BIGSERIAL PRIMARY KEY, "
+					+ "user_id " + (hex ? "VARCHAR(255)" : "BIGINT") + " NOT NULL, "
+					+ "token_hash " + (hex ? "TEXT" : "BYTEA") + " NOT NULL, "
+					+ "expires_at TIMESTAMPTZ NOT NULL, "
+					+ "revoked BOOLEAN NOT NULL DEFAULT FALSE)");
+			statement.execute("INSERT INTO " + table + " (user_id, token_hash, expires_at) "
+					+ "SELECT " + (hex ? "'user' || (g % 1000000) || '@example.com'" : "g % 1000000") + ", "
+					+ (hex ? "encode(sha256(int8send(g)), 'hex')" : "sha256(int8send(g))") + ", "
+					+ "now() + interval '30 days' FROM generate_series(0, " + (rows - 1) + ") g");
+			statement.execute("CREATE " + (hex ? "" : "UNIQUE ") + "INDEX " + table.substring("bench.".length())
+					+ "_hash_idx ON " + table + " (token_hash)");
+			statement.execute("ANALYZE " + table);
+		}
+
+		Connection connect() throws SQLException {
+			return DriverManager.getConnection(jdbcUrl, user, password);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Session {
+
+		private Connection connection;
+		private PreparedStatement lookup;
+		private MessageDigest sha256;
+		private boolean hex;
+		private long rows;
+
+		@Setup(Level.Trial)
+		public void open(Database database) throws SQLException, NoSuchAlgorithmException {
+			connection = database.connect();
+			lookup = connection.prepareStatement(
+					"SELECT id, user_id, expires_at, revoked FROM " + database.table + " WHERE token_hash = ?");
+			sha256 = MessageDigest.getInstance("SHA-256");
+			hex = database.layout.equals("hex");
+			rows = database.rows;
+		}
+
+		@TearDown(Level.Trial)
+		public void close() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@Benchmark
+	public long lookupByHash(Session session) throws SQLException {
+		long token = ThreadLocalRandom.current().nextLong(session.rows);
+		byte[] digest = session.sha256.digest(ByteBuffer.allocate(Long.BYTES).putLong(token).array());
+		if (session.hex) {
+			session.lookup.setString(1, HexFormat.of().formatHex(digest));
+		} else {
+			session.lookup.setBytes(1, digest);
+		}
+		try (ResultSet found = session.lookup.executeQuery()) {
+			if (!found.next()) throw new IllegalStateException("Token " + token + " not found");
+			return found.getLong(1);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package dev.api.auth.authservice.common.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of {@link KafkaService} against an embedded single-node broker, with the
+ * producer settings of {@code application.properties} (acks=all, idempotence) and the batching
+ * profile as parameters. {@code burst} sends {@link #BURST} keyed messages and waits for all
+ * acknowledgements; {@code single} waits for each message before sending the next.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="KafkaPublisherBenchmark -p lingerMs=0,10"}
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaPublisherBenchmark {
+
+	private static final String TOPIC = "benchmark-events";
+	private static final int BURST = 1000;
+
+	@Param({"0", "10"})
+	public int lingerMs;
+
+	@Param({"none", "lz4"})
+	public String compression;
+
+	@Param("65536")
+	public int batchSize;
+
+	@Param("512")
+	public int messageBytes;
+
+	private EmbeddedKafkaKraftBroker broker;
+	private DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+	private KafkaService kafkaService;
+	private byte[] message;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		broker = new EmbeddedKafkaKraftBroker(1, 12, TOPIC, TOPIC + ".DLQ");
+		broker.afterPropertiesSet();
+
+		Map<String, Object> config = new HashMap<>();
+		config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+		config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+		config.put(ProducerConfig.ACKS_CONFIG, "all");
+		config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+		config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+		config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+		config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+		config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+		producerFactory = new DefaultKafkaProducerFactory<>(config);
+		kafkaService = new KafkaService(new KafkaTemplate<>(producerFactory), new KafkaPublisherProperties(), new SimpleMeterRegistry());
+
+		message = new byte[messageBytes];
+		Arrays.fill(message, (byte) '{');
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		producerFactory.destroy();
+		broker.destroy();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(BURST)
+	public void burst() {
+		CompletableFuture<?>[] sends = new CompletableFuture<?>[BURST];
+		for (int i = 0; i < BURST; i++) {
+			sends[i] = kafkaService.send(TOPIC, key(), message, "application/json");
+		}
+		CompletableFuture.allOf(sends).join();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object single() {
+		return kafkaService.send(TOPIC, key(), message, "application/json").join();
+	}
+
+	private static String key() {
+		return Long.toString(ThreadLocalRandom.current().nextLong(100_000));
+	}
+}
@@ -0,0 +1,69 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.api.auth.authservice.api.users.dtos.UserDto;
+import dev.api.auth.authservice.common.kafka.KafkaMessage;
+import dev.api.auth.authservice.common.kafka.events.tokens.AccessTokenRevokedEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserUpdatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost per message of the former JSON String path ({@code writeValueAsString} then
+ * {@code StringSerializer}), the JSON and the Avro payload serializers. The encoded size of each
+ * combination is printed at setup; run with {@code -prof gc} for the allocation rate:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="KafkaPayloadSerializationBenchmark -prof gc"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaPayloadSerializationBenchmark {
+
+	@Param({"jsonString", "json", "avro"})
+	public String format;
+
+	@Param({"user", "revocation"})
+	public String payload;
+
+	private ObjectMapper objectMapper;
+	private KafkaPayloadSerializer serializer;
+	private KafkaMessage<?> message;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		objectMapper = JsonMapper.builder().findAndAddModules().build();
+		serializer = format.equals("avro") ? new AvroKafkaPayloadSerializer() : new JsonKafkaPayloadSerializer(objectMapper);
+		message = payload.equals("user")
+				? new KafkaMessage<>(KafkaMessage.KafkaMessageType.UPDATE_ENTITY,
+						new UserUpdatedEvent(new UserDto(123456L, "jane.doe", "jane.doe@example.com", "USER")))
+				: new KafkaMessage<>(KafkaMessage.KafkaMessageType.REVOKE_TOKEN,
+						new AccessTokenRevokedEvent(UUID.randomUUID(), Instant.now()));
+		System.out.println(format + "/" + payload + ": " + serialize().length + " bytes");
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return format.equals("jsonString")
+				? objectMapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8)
+				: serializer.serialize(message);
+	}
+}
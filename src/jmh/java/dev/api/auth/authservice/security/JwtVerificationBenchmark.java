@@ -0,0 +1,73 @@
+package dev.api.auth.authservice.security;
+
+import dev.api.auth.authservice.security.keys.JwtKeyProperties;
+import dev.api.auth.authservice.security.keys.KeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request's access token: the former path, which built a parser and
+ * verified the signature twice (subject, then claims), against the single verification with the
+ * shared parser and the verified token cache in front of it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+	private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+	private static final long EXPIRATION = Duration.ofHours(1).toMillis();
+
+	private Key key;
+	private JwtService jwtService;
+	private VerifiedTokenCache verifiedTokenCache;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		key = Keys.hmacShaKeyFor(SECRET.getBytes());
+		KeyRing keyRing = new KeyRing(new JwtKeyProperties(), null, SECRET, EXPIRATION);
+		jwtService = new JwtService(keyRing, EXPIRATION);
+		verifiedTokenCache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), true, 10_000, Duration.ofHours(1));
+		token = jwtService.generateAccessToken("user@example.com", Map.of("id", 42L, "username", "user", "role", "USER"));
+	}
+
+	@Benchmark
+	public void parserPerCallTwice(Blackhole blackhole) {
+		String subject = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+		Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+		blackhole.consume(subject);
+		blackhole.consume(claims);
+	}
+
+	@Benchmark
+	public VerifiedToken sharedParserOnce() {
+		return jwtService.verify(token);
+	}
+
+	@Benchmark
+	public VerifiedTokenCache.CachedAuthentication cachedVerification() {
+		return verifiedTokenCache.resolve(token);
+	}
+}
@@ -0,0 +1,80 @@
+package dev.api.auth.authservice.security;
+
+import dev.api.auth.authservice.security.hashing.PasswordProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login and hashing cost of the former {@code new BCryptPasswordEncoder()} against the delegating
+ * encoder built from {@link PasswordProperties}, per algorithm and cost. {@code legacy} verifies an
+ * unprefixed hash through the former encoder; the others verify a hash of the configured algorithm.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="PasswordHashingBenchmark -p bcryptStrength=10,12"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+
+	private static final String PASSWORD = "correct horse battery staple";
+
+	@Param({"legacy", "bcrypt", "pbkdf2", "argon2"})
+	public String algorithm;
+
+	@Param("10")
+	public int bcryptStrength;
+
+	@Param("310000")
+	public int pbkdf2Iterations;
+
+	@Param("16384")
+	public int argon2Memory;
+
+	@Param("2")
+	public int argon2Iterations;
+
+	private PasswordEncoder encoder;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		if (algorithm.equals("legacy")) {
+			encoder = new BCryptPasswordEncoder();
+		} else {
+			PasswordProperties props = new PasswordProperties();
+			props.setAlgorithm(algorithm);
+			props.setBcryptStrength(bcryptStrength);
+			props.setPbkdf2Iterations(pbkdf2Iterations);
+			props.setArgon2Memory(argon2Memory);
+			props.setArgon2Iterations(argon2Iterations);
+			encoder = SecurityConfig.delegatingPasswordEncoder(props);
+		}
+		hash = encoder.encode(PASSWORD);
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return encoder.matches(PASSWORD, hash);
+	}
+
+	@Benchmark
+	public String encode() {
+		return encoder.encode(PASSWORD);
+	}
+}
@@ -8,18 +8,23 @@ import dev.api.auth.authservice.api.auth.utils.TokenUtils;
 import dev.api.auth.authservice.api.users.User;
 import dev.api.auth.authservice.api.users.UserRepository;
 import dev.api.auth.authservice.api.users.dtos.PasswordChange;
+import dev.api.auth.authservice.common.cache.CacheNames;
 import dev.api.auth.authservice.common.exceptions.ResourceAlreadyInUseException;
 import dev.api.auth.authservice.common.exceptions.ResourceNotFoundException;
+import dev.api.auth.authservice.common.interceptors.limiting.AuthThrottle;
 import dev.api.auth.authservice.common.kafka.EntityEventPublisher;
 import dev.api.auth.authservice.common.kafka.KafkaMessage;
 import dev.api.auth.authservice.common.kafka.events.KafkaTopics;
 import dev.api.auth.authservice.common.kafka.events.emails.EmailBodyPayload;
 import dev.api.auth.authservice.security.JwtService;
-import io.jsonwebtoken.Claims;
+import dev.api.auth.authservice.security.VerifiedToken;
+import dev.api.auth.authservice.security.VerifiedTokenCache;
+import dev.api.auth.authservice.security.hashing.PasswordHashUpgrader;
+import dev.api.auth.authservice.security.revocation.AccessTokenRevocationList;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -41,6 +46,10 @@ public class AuthService {
 	private final ResetTokenRepository resetTokenRepository;
 	private final TokenUtils tokenUtils;
 	private final EntityEventPublisher eventPublisher;
+	private final PasswordHashUpgrader passwordHashUpgrader;
+	private final AuthThrottle authThrottle;
+	private final VerifiedTokenCache verifiedTokenCache;
+	private final AccessTokenRevocationList revocationList;
 
 	public AuthService(JwtService jwtService,
 					   UserRepository userRepository,
@@ -48,7 +57,11 @@ public class AuthService {
 					   RefreshTokenService refreshTokenService,
 					   ResetTokenRepository resetTokenRepository,
 					   TokenUtils tokenUtils,
-					   EntityEventPublisher eventPublisher) {
+					   EntityEventPublisher eventPublisher,
+					   PasswordHashUpgrader passwordHashUpgrader,
+					   AuthThrottle authThrottle,
+					   VerifiedTokenCache verifiedTokenCache,
+					   AccessTokenRevocationList revocationList) {
 		this.jwtService = jwtService;
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
@@ -56,6 +69,10 @@ public class AuthService {
 		this.resetTokenRepository = resetTokenRepository;
 		this.tokenUtils = tokenUtils;
 		this.eventPublisher = eventPublisher;
+		this.passwordHashUpgrader = passwordHashUpgrader;
+		this.authThrottle = authThrottle;
+		this.verifiedTokenCache = verifiedTokenCache;
+		this.revocationList = revocationList;
 	}
 
 	/**
@@ -67,20 +84,27 @@ public class AuthService {
 	 * @return JWT token
 	 */
 	public Map<String, String> login(LoginRequest dto, HttpServletRequest req, HttpServletResponse response) {
-		User user = userRepository.findByEmail(dto.getEmail())
-				.orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + dto.getEmail()));
-
-		if (!passwordEncoder.matches(dto.getPassword(), user.getPasswordHash())) {
-			throw new BadCredentialsException("Invalid credentials");
+		authThrottle.checkLogin(dto.getEmail(), req.getRemoteAddr());
+		User user;
+		try {
+			user = userRepository.findByEmail(dto.getEmail())
+					.orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + dto.getEmail()));
+			if (!passwordEncoder.matches(dto.getPassword(), user.getPasswordHash())) {
+				throw new BadCredentialsException("Invalid credentials");
+			}
+		} catch (ResourceNotFoundException | BadCredentialsException e) {
+			authThrottle.recordFailure(dto.getEmail(), req.getRemoteAddr());
+			throw e;
 		}
+		authThrottle.recordSuccess(dto.getEmail(), req.getRemoteAddr());
+		passwordHashUpgrader.upgradeIfNeeded(user, dto.getPassword());
 
-		Claims claims = jwtService.getAllClaims(req.getHeader(HttpHeaders.AUTHORIZATION));
 		IssuedTokens tokens = refreshTokenService.createTokensForUser(
-				user.getEmail(), claims, dto.getClientId(), req.getRemoteAddr(), req.getHeader(HttpHeaders.USER_AGENT)
+				user.getId(), user.getEmail(), jwtService.userClaims(user), dto.getClientId(), req.getRemoteAddr(), req.getHeader(HttpHeaders.USER_AGENT)
 		);
 		response.addHeader(HttpHeaders.SET_COOKIE, createRefreshTokenCookie(tokens.refreshToken(), refreshTokenService.getRefreshTtl().getSeconds()));
 
-		return jwtService.mapUserClaimsToToken(user);
+		return Map.of("access_token", tokens.accessToken());
 	}
 
 	/**
@@ -90,11 +114,10 @@ public class AuthService {
 	 * @param response - HTTP response
 	 * @return JWT token
 	 */
-	@Caching(evict = {
-			@CacheEvict(value = "users", key = "'all'"),
-			@CacheEvict(value = "users", key = "'allIncludingDeleted'")
-	})
+	@Transactional
+	@CacheEvict(value = CacheNames.USER_LISTS, allEntries = true)
 	public Map<String, String> register(RegisterRequest dto, HttpServletResponse response) {
+		authThrottle.checkCredential(dto.getEmail());
 		if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
 			throw new ResourceAlreadyInUseException("Email already in use", dto.getEmail());
 		}
@@ -105,10 +128,8 @@ public class AuthService {
 				dto.getRole());
 		User savedUser = userRepository.save(newUser);
 
-		Map<String, String> token = jwtService.mapUserClaimsToToken(savedUser);
-		Claims claims = jwtService.getAllClaims(token.get("access_token"));
 		IssuedTokens tokens = refreshTokenService.createTokensForUser(
-				savedUser.getEmail(), claims, dto.getClientId(), null, null
+				savedUser.getId(), savedUser.getEmail(), jwtService.userClaims(savedUser), dto.getClientId(), null, null
 		);
 		response.addHeader(HttpHeaders.SET_COOKIE,
 				createRefreshTokenCookie(
@@ -118,10 +139,12 @@ public class AuthService {
 		);
 
 		eventPublisher.publishEvent(KafkaTopics.USER_EVENTS,
+				String.valueOf(savedUser.getId()),
 				KafkaMessage.KafkaMessageType.CREATE_ENTITY,
 				savedUser.toDto()
 		);
 		eventPublisher.publishEvent(KafkaTopics.EMAIL_EVENTS,
+				savedUser.getEmail(),
 				KafkaMessage.KafkaMessageType.EMAIL,
 				new EmailBodyPayload(
 						savedUser.getEmail(),
@@ -130,11 +153,11 @@ public class AuthService {
 				)
 		);
 
-		return token;
+		return Map.of("access_token", tokens.accessToken());
 	}
 
 	/**
-	 * Logout user and invalidate their refresh token
+	 * Logout user, invalidate their refresh token and revoke the presented access token
 	 *
 	 * @param body     - request body containing optional "jti" to revoke specific token
 	 * @param request  - HTTP request
@@ -144,12 +167,31 @@ public class AuthService {
 		String jtiStr = body.get("jti");
 		if (jtiStr != null) refreshTokenService.revokeByJti(UUID.fromString(jtiStr));
 		else if (request.getUserPrincipal() != null) {
-			String userId = request.getUserPrincipal().getName();
-			refreshTokenService.revokeAllForUser(userId);
+			String email = request.getUserPrincipal().getName();
+			userRepository.findByEmail(email)
+					.ifPresent(user -> refreshTokenService.revokeAllForUser(user.getId()));
 		}
+		revokeAccessToken(request.getHeader(HttpHeaders.AUTHORIZATION));
 		response.addHeader(HttpHeaders.SET_COOKIE, createRefreshTokenCookie("", 0));
 	}
 
+	/**
+	 * Revoke the bearer token until it expires. Invalid tokens and tokens without a jti are ignored.
+	 *
+	 * @param authHeader - the Authorization header, may be null
+	 */
+	private void revokeAccessToken(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) return;
+		try {
+			VerifiedToken token = verifiedTokenCache.resolve(authHeader.substring(7)).token();
+			if (token.jti() != null && token.expiresAt() != null) {
+				revocationList.revoke(token.jti(), token.expiresAt());
+			}
+		} catch (JwtException | IllegalArgumentException ignored) {
+			// nothing to revoke
+		}
+	}
+
 	/**
 	 * Initiate password reset process for a user by email
 	 *
@@ -157,6 +199,7 @@ public class AuthService {
 	 */
 	@Transactional
 	public void initiatePasswordReset(String email) {
+		authThrottle.checkCredential(email);
 		User user = userRepository.findByEmail(email)
 				.orElseThrow(() -> new ResourceNotFoundException("User with email " + email + " not found"));
 		String token = tokenUtils.generateRandomToken(32);
@@ -169,6 +212,7 @@ public class AuthService {
 
 		String resetLink = "https://yourapp.com/reset-password?token=" + token + "&email=" + email;
 		eventPublisher.publishEvent(KafkaTopics.EMAIL_EVENTS,
+				user.getEmail(),
 				KafkaMessage.KafkaMessageType.EMAIL,
 				new EmailBodyPayload(
 						user.getEmail(),
@@ -198,6 +242,7 @@ public class AuthService {
 		resetTokenRepository.save(resetToken);
 
 		eventPublisher.publishEvent(KafkaTopics.EMAIL_EVENTS,
+				user.getEmail(),
 				KafkaMessage.KafkaMessageType.EMAIL,
 				new EmailBodyPayload(
 						user.getEmail(),
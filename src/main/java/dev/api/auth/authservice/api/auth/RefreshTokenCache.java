@@ -0,0 +1,170 @@
+package dev.api.auth.authservice.api.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Write-through cache of refresh tokens keyed by token hash. Issued tokens are cached as active,
+ * rotated ones stay cached as revoked until they would have expired, so a replayed token is
+ * recognised without touching the database. Updates are applied once the surrounding
+ * transaction commits. The database stays authoritative: a token cached as active on this
+ * replica may already be rotated on another one, which the conditional rotate UPDATE detects.
+ * Families revoked for token reuse are kept on a denylist for one refresh TTL, the longest any
+ * of their tokens can live, so further replays from them are rejected without a query.
+ */
+@Component
+public class RefreshTokenCache {
+
+	/**
+	 * Cached columns of a refresh token.
+	 */
+	public record Entry(UUID jti, UUID familyId, Long userId, String userEmail, String clientId, Instant expiresAt, boolean revoked) {}
+
+	private record HashKey(long a, long b, long c, long d) {}
+
+	private final boolean enabled;
+	private final Cache<HashKey, Entry> cache;
+	private final Cache<UUID, Boolean> deniedFamilies;
+
+	public RefreshTokenCache(MeterRegistry meterRegistry,
+							 @Value("${auth.refresh.cache.enabled:true}") boolean enabled,
+							 @Value("${auth.refresh.cache.maximum-size:100000}") long maximumSize,
+							 @Value("${auth.refresh.cache.denied-families-maximum-size:100000}") long deniedFamiliesMaximumSize,
+							 @Value("${auth.refresh.ttl:2592000s}") Duration refreshTtl) {
+		this.enabled = enabled;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new EntryExpiry())
+				.recordStats()
+				.build();
+		this.deniedFamilies = Caffeine.newBuilder()
+				.maximumSize(deniedFamiliesMaximumSize)
+				.expireAfterWrite(refreshTtl)
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.refresh");
+		Gauge.builder("auth.refresh.denied.families", deniedFamilies, Cache::estimatedSize)
+				.description("Token families revoked for reuse and still denied")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @param tokenHash the token hash
+	 * @return the cached token, or null on a miss
+	 */
+	public Entry get(byte[] tokenHash) {
+		return enabled ? cache.getIfPresent(key(tokenHash)) : null;
+	}
+
+	/**
+	 * Caches a token once the current transaction commits.
+	 *
+	 * @param tokenHash the token hash
+	 * @param entry     the token
+	 */
+	public void put(byte[] tokenHash, Entry entry) {
+		if (enabled) {
+			HashKey key = key(tokenHash);
+			afterCommit(() -> cache.put(key, entry));
+		}
+	}
+
+	/**
+	 * Evicts every token of a user once the current transaction commits.
+	 *
+	 * @param userId the user id
+	 */
+	public void evictUser(Long userId) {
+		if (enabled) afterCommit(() -> cache.asMap().values().removeIf(e -> Objects.equals(e.userId(), userId)));
+	}
+
+	/**
+	 * Evicts every token of the given users once the current transaction commits.
+	 *
+	 * @param userIds the user ids
+	 */
+	public void evictUsers(Set<Long> userIds) {
+		if (enabled) afterCommit(() -> cache.asMap().values().removeIf(e -> userIds.contains(e.userId())));
+	}
+
+	/**
+	 * Evicts a token by jti once the current transaction commits.
+	 *
+	 * @param jti the token id
+	 */
+	public void evictJti(UUID jti) {
+		if (enabled) afterCommit(() -> cache.asMap().values().removeIf(e -> Objects.equals(e.jti(), jti)));
+	}
+
+	/**
+	 * @param familyId the token family
+	 * @return true if the family was revoked for reuse on this replica
+	 */
+	public boolean isFamilyDenied(UUID familyId) {
+		return enabled && deniedFamilies.getIfPresent(familyId) != null;
+	}
+
+	/**
+	 * Denies a family right away, before the revoking transaction commits, so concurrent replays
+	 * are turned away while the revocation is still in flight. A denied family is never re-allowed,
+	 * its tokens stay revoked in the database.
+	 *
+	 * @param familyId the token family
+	 */
+	public void denyFamily(UUID familyId) {
+		if (enabled) deniedFamilies.put(familyId, Boolean.TRUE);
+	}
+
+	private static HashKey key(byte[] hash) {
+		ByteBuffer buffer = ByteBuffer.wrap(hash);
+		return new HashKey(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	/**
+	 * Expires entries when the token itself expires.
+	 */
+	private static final class EntryExpiry implements Expiry<HashKey, Entry> {
+
+		@Override
+		public long expireAfterCreate(HashKey key, Entry value, long currentTime) {
+			return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(HashKey key, Entry value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(HashKey key, Entry value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
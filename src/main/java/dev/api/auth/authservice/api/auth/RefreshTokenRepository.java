@@ -1,6 +1,7 @@
 package dev.api.auth.authservice.api.auth;
 
 import dev.api.auth.authservice.api.auth.entities.RefreshToken;
+import dev.api.auth.authservice.api.auth.entities.SessionDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,13 +12,25 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID>, RefreshTokenRepositoryCustom {
 	Optional<RefreshToken> findByJti(UUID jti);
-	Optional<RefreshToken> findByTokenHash(String tokenHash);
-	List<RefreshToken> findAllByUserIdAndRevokedFalseAndExpiresAtAfter(String userId, Instant now);
+	Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+	@Query("""
+			SELECT new dev.api.auth.authservice.api.auth.entities.SessionDto(
+			    t.jti, t.clientId, t.createdAt, t.lastUsedAt, t.expiresAt, t.ipAddress, t.userAgent)
+			FROM RefreshToken t
+			WHERE t.userId = :userId AND t.revoked = false AND t.expiresAt > :now
+			ORDER BY t.expiresAt DESC
+			""")
+	List<SessionDto> findActiveSessions(@Param("userId") Long userId, @Param("now") Instant now);
 	@Modifying
-	@Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.userEmail = :userId")
-	void revokeAllByUserId(@Param("userId") String userId);
-	void deleteAllByRevokedTrueOrExpiresAtBefore(Instant now);
+	@Query("UPDATE RefreshToken t SET t.revoked = true, t.revokedAt = INSTANT WHERE t.userId = :userId AND t.revoked = false")
+	int revokeAllByUserId(@Param("userId") Long userId);
+	@Modifying
+	@Query("UPDATE RefreshToken t SET t.revoked = true, t.revokedAt = INSTANT WHERE t.jti = :jti AND t.userId = :userId AND t.revoked = false")
+	int revokeByJtiAndUserId(@Param("jti") UUID jti, @Param("userId") Long userId);
+	@Modifying
+	@Query("UPDATE RefreshToken t SET t.revoked = true, t.revokedAt = INSTANT WHERE t.familyId = :familyId AND t.revoked = false")
+	int revokeFamily(@Param("familyId") UUID familyId);
 }
 
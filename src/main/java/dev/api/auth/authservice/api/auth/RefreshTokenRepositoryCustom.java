@@ -0,0 +1,33 @@
+package dev.api.auth.authservice.api.auth;
+
+import dev.api.auth.authservice.api.auth.entities.RotatedToken;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepositoryCustom {
+
+	/**
+	 * Revokes an active refresh token in a single conditional UPDATE.
+	 * Of several concurrent calls for the same token exactly one gets the row back.
+	 *
+	 * @param tokenHash     hash of the presented token
+	 * @param clientId      client the token must be bound to, or null to skip the check
+	 * @param replacedByJti jti of the token replacing it
+	 * @param now           the current time
+	 * @return the revoked token, or empty if it is unknown, already revoked expired or bound to another client
+	 */
+	Optional<RotatedToken> rotate(byte[] tokenHash, String clientId, UUID replacedByJti, Instant now);
+
+	/**
+	 * Revokes the active tokens of many users in one statement. Only rows still active are
+	 * touched, found through the partial index on active tokens, so the cost follows the number
+	 * of live sessions rather than the token history.
+	 *
+	 * @param userIds the users
+	 * @return the number of revoked tokens
+	 */
+	int revokeAllByUserIds(Collection<Long> userIds);
+}
@@ -0,0 +1,60 @@
+package dev.api.auth.authservice.api.auth;
+
+import dev.api.auth.authservice.api.auth.entities.RotatedToken;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom {
+
+	private static final String ROTATE = """
+			UPDATE auth_refresh_tokens
+			SET revoked = true, revoked_at = ?, replaced_by_jti = ?, last_used_at = ?
+			WHERE token_hash = ? AND revoked = false AND expires_at > ?
+			  AND (CAST(? AS TEXT) IS NULL OR client_id = ?)
+			RETURNING jti, family_id, user_id, user_email, client_id, expires_at
+			""";
+
+	private static final String REVOKE_USERS = """
+			UPDATE auth_refresh_tokens
+			SET revoked = true, revoked_at = now()
+			WHERE user_id = ANY (?) AND revoked = false
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	RefreshTokenRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public Optional<RotatedToken> rotate(byte[] tokenHash, String clientId, UUID replacedByJti, Instant now) {
+		Timestamp at = Timestamp.from(now);
+		List<RotatedToken> rows = jdbcTemplate.query(ROTATE, (rs, i) -> new RotatedToken(
+				rs.getObject("jti", UUID.class),
+				rs.getObject("family_id", UUID.class),
+				rs.getLong("user_id"),
+				rs.getString("user_email"),
+				rs.getString("client_id"),
+				rs.getTimestamp("expires_at").toInstant()
+		), at, replacedByJti, at, tokenHash, at, clientId, clientId);
+		return rows.stream().findFirst();
+	}
+
+	@Override
+	public int revokeAllByUserIds(Collection<Long> userIds) {
+		if (userIds.isEmpty()) return 0;
+		Long[] ids = userIds.toArray(Long[]::new);
+		return jdbcTemplate.update(con -> {
+			PreparedStatement ps = con.prepareStatement(REVOKE_USERS);
+			ps.setArray(1, con.createArrayOf("bigint", ids));
+			return ps;
+		});
+	}
+}
@@ -2,8 +2,11 @@ package dev.api.auth.authservice.api.auth;
 
 import dev.api.auth.authservice.api.auth.entities.IssuedTokens;
 import dev.api.auth.authservice.api.auth.entities.RefreshToken;
+import dev.api.auth.authservice.api.auth.entities.RotatedToken;
+import dev.api.auth.authservice.api.auth.entities.SessionDto;
 import dev.api.auth.authservice.api.auth.utils.TokenUtils;
 import dev.api.auth.authservice.common.exceptions.InvalidTokenException;
+import dev.api.auth.authservice.common.exceptions.ResourceNotFoundException;
 import dev.api.auth.authservice.security.JwtService;
 import jakarta.transaction.Transactional;
 import lombok.Getter;
@@ -12,8 +15,11 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -23,81 +29,76 @@ public class RefreshTokenService {
 	private final RefreshTokenRepository repo;
 	private final TokenUtils tokenUtils;
 	private final JwtService jwtService;
+	private final RefreshTokenCache refreshTokenCache;
 	private final Duration refreshTtl;
 	private final int tokenByteLen;
 
 	public RefreshTokenService(RefreshTokenRepository repo,
 							   TokenUtils tokenUtils,
 							   JwtService jwtService,
+							   RefreshTokenCache refreshTokenCache,
 							   @Value("${auth.refresh.ttl:2592000s}") Duration refreshTtl,
 							   @Value("${auth.refresh.token-bytes:32}") int tokenByteLen) {
 		this.repo = repo;
 		this.tokenUtils = tokenUtils;
 		this.jwtService = jwtService;
+		this.refreshTokenCache = refreshTokenCache;
 		this.refreshTtl = refreshTtl;
 		this.tokenByteLen = tokenByteLen;
 	}
 
 	@Transactional
-	public IssuedTokens createTokensForUser(String userId, Map<String,Object> accessClaims, String clientId, String ip, String userAgent) {
-		String accessToken = jwtService.generateAccessToken(String.valueOf(userId), accessClaims);
-
+	public IssuedTokens createTokensForUser(Long userId, String subject, Map<String,Object> accessClaims, String clientId, String ip, String userAgent) {
+		String accessToken = jwtService.generateAccessToken(subject, accessClaims);
 		String rawRefresh = tokenUtils.generateRandomToken(tokenByteLen);
-		String hash = tokenUtils.hashToken(rawRefresh);
-
-		RefreshToken entity = new RefreshToken();
-		entity.setUserEmail(userId);
-		entity.setClientId(clientId);
-		entity.setTokenHash(hash);
-		entity.setExpiresAt(Instant.now().plus(refreshTtl));
-		entity.setIpAddress(ip);
-		entity.setUserAgent(userAgent);
-		repo.save(entity);
-
+		RefreshToken entity = issue(userId, subject, clientId, rawRefresh, ip, userAgent);
 		return new IssuedTokens(accessToken, rawRefresh, entity.getJti());
 	}
 
 	/**
 	 * Refresh flow with rotation:
-	 * - locate token by hash
-	 * - check not revoked & not expired & optional client match
-	 * - issue new access token + new refresh token
-	 * - mark old token revoked and set replaced_by_jti
-	 * - save new token and return it
+	 * - reject tokens of families already revoked for reuse, and tokens the cache already knows
+	 *   to be revoked, expired or bound to another client
+	 * - revoke the presented token with one conditional UPDATE, which only succeeds while it is active
+	 *   and bound to the client
+	 * - if that UPDATE matches nothing the token is unknown, expired, bound to another client or
+	 *   being replayed; a replay revokes the token's family (the session it belongs to), and that
+	 *   revocation is kept although the call fails
+	 * - insert the new token into the same family (a plain INSERT, see {@link RefreshToken#isNew()}) and return it
+	 * - cache the old token as revoked and the new one as active; {@link RefreshTokenCache#put} registers both
+	 *   writes as {@code afterCommit} callbacks, so a rolled back refresh never reaches the cache
+	 * Concurrent replays of one token race on the UPDATE instead of on a row lock: one wins, the rest are replays.
 	 */
-	@Transactional
+	@Transactional(dontRollbackOn = InvalidTokenException.class)
 	public IssuedTokens refresh(String presentedRefreshToken, String clientId, Map<String,Object> accessClaims) {
-		String hash = tokenUtils.hashToken(presentedRefreshToken);
-
-		RefreshToken old = repo.findByTokenHash(hash)
-				.orElseThrow(() -> new InvalidTokenException("Refresh token not found"));
-
-		if (old.isRevoked() || old.getExpiresAt().isBefore(Instant.now())) {
-			repo.revokeAllByUserId(old.getUserEmail());
-			throw new InvalidTokenException("Refresh token expired or revoked");
-		}
-
-		if (clientId != null && !Objects.equals(clientId, old.getClientId())) {
-			throw new InvalidTokenException("Client mismatch");
+		byte[] hash = tokenUtils.digestToken(presentedRefreshToken);
+		Instant now = Instant.now();
+
+		RefreshTokenCache.Entry cached = refreshTokenCache.get(hash);
+		if (cached != null) {
+			if (refreshTokenCache.isFamilyDenied(cached.familyId())) {
+				throw new InvalidTokenException("Refresh token expired or revoked");
+			}
+			if (cached.revoked()) {
+				revokeFamily(cached.familyId());
+				throw new InvalidTokenException("Refresh token expired or revoked");
+			}
+			if (cached.expiresAt().isBefore(now)) {
+				throw new InvalidTokenException("Refresh token expired or revoked");
+			}
+			if (clientId != null && !Objects.equals(clientId, cached.clientId())) {
+				throw new InvalidTokenException("Client mismatch");
+			}
 		}
 
 		String newRaw = tokenUtils.generateRandomToken(tokenByteLen);
-		String newHash = tokenUtils.hashToken(newRaw);
-		RefreshToken newToken = new RefreshToken();
-		newToken.setUserEmail(old.getUserEmail());
-		newToken.setClientId(clientId);
-		newToken.setTokenHash(newHash);
-		newToken.setExpiresAt(Instant.now().plus(refreshTtl));
-		newToken.setIpAddress(null);
-		newToken.setUserAgent(null);
-		repo.save(newToken);
-
-		old.setRevoked(true);
-		old.setReplacedByJti(newToken.getJti());
-		old.setLastUsedAt(Instant.now());
-		repo.save(old);
-
-		String newAccess = jwtService.generateAccessToken(String.valueOf(old.getUserEmail()), accessClaims);
+		UUID newJti = UUID.randomUUID();
+		RotatedToken old = repo.rotate(hash, clientId, newJti, now).orElseThrow(() -> rejectUnrotated(hash, now));
+
+		RefreshToken newToken = issue(old.userId(), old.userEmail(), clientId != null ? clientId : old.clientId(), newRaw, null, null, newJti, old.familyId());
+		refreshTokenCache.put(hash, new RefreshTokenCache.Entry(old.jti(), old.familyId(), old.userId(), old.userEmail(), old.clientId(), old.expiresAt(), true));
+
+		String newAccess = jwtService.generateAccessToken(old.userEmail(), accessClaims);
 		return new IssuedTokens(newAccess, newRaw, newToken.getJti());
 	}
 
@@ -105,12 +106,113 @@ public class RefreshTokenService {
 	public void revokeByJti(UUID jti) {
 		RefreshToken t = repo.findByJti(jti).orElseThrow(() -> new InvalidTokenException("Refresh token not found"));
 		t.setRevoked(true);
+		t.setRevokedAt(Instant.now());
 		repo.save(t);
+		refreshTokenCache.evictJti(jti);
 	}
 
+	/**
+	 * Revokes the live tokens of one family with a single indexed UPDATE and denies the family
+	 * locally. The user's other sessions are left alone.
+	 *
+	 * @param familyId the token family
+	 */
 	@Transactional
-	public void revokeAllForUser(String userId) {
+	public void revokeFamily(UUID familyId) {
+		refreshTokenCache.denyFamily(familyId);
+		repo.revokeFamily(familyId);
+	}
+
+	/**
+	 * Revokes every refresh token of a user. Access tokens already issued stay valid until they
+	 * expire unless revoked by {@code jti}.
+	 *
+	 * @param userId the user id
+	 */
+	@Transactional
+	public void revokeAllForUser(Long userId) {
 		repo.revokeAllByUserId(userId);
+		refreshTokenCache.evictUser(userId);
+	}
+
+	/**
+	 * Lists the active sessions of a user, newest first.
+	 *
+	 * @param userId the user id
+	 * @return the sessions
+	 */
+	public List<SessionDto> listSessions(Long userId) {
+		return repo.findActiveSessions(userId, Instant.now());
 	}
-}
 
+	/**
+	 * Revokes one session of a user.
+	 *
+	 * @param userId the user id
+	 * @param jti    the session's refresh token id
+	 * @throws ResourceNotFoundException if the user has no such active session
+	 */
+	@Transactional
+	public void revokeSession(Long userId, UUID jti) {
+		if (repo.revokeByJtiAndUserId(jti, userId) == 0) {
+			throw new ResourceNotFoundException("Session " + jti + " not found");
+		}
+		refreshTokenCache.evictJti(jti);
+	}
+
+	/**
+	 * Revokes every session of the given users in one statement. Access tokens already issued stay
+	 * valid until they expire unless revoked by {@code jti}.
+	 *
+	 * @param userIds the user ids
+	 * @return the number of revoked sessions
+	 */
+	@Transactional
+	public int revokeAllForUsers(Collection<Long> userIds) {
+		Set<Long> ids = Set.copyOf(userIds);
+		int revoked = repo.revokeAllByUserIds(ids);
+		refreshTokenCache.evictUsers(ids);
+		return revoked;
+	}
+
+	private RefreshToken issue(Long userId, String subject, String clientId, String rawRefresh, String ip, String userAgent) {
+		UUID jti = UUID.randomUUID();
+		return issue(userId, subject, clientId, rawRefresh, ip, userAgent, jti, jti);
+	}
+
+	private RefreshToken issue(Long userId, String subject, String clientId, String rawRefresh, String ip, String userAgent, UUID jti, UUID familyId) {
+		byte[] hash = tokenUtils.digestToken(rawRefresh);
+		RefreshToken entity = new RefreshToken();
+		entity.setJti(jti);
+		entity.setFamilyId(familyId);
+		entity.setUserId(userId);
+		entity.setUserEmail(subject);
+		entity.setClientId(clientId);
+		entity.setTokenHash(hash);
+		entity.setExpiresAt(Instant.now().plus(refreshTtl));
+		entity.setIpAddress(ip);
+		entity.setUserAgent(userAgent);
+		repo.save(entity);
+		refreshTokenCache.put(hash, new RefreshTokenCache.Entry(jti, familyId, userId, subject, clientId, entity.getExpiresAt(), false));
+		return entity;
+	}
+
+	/**
+	 * The rotate UPDATE matched nothing. A token that exists but was already used or revoked
+	 * is treated as stolen and its family is revoked, unless that already happened.
+	 */
+	private InvalidTokenException rejectUnrotated(byte[] hash, Instant now) {
+		RefreshToken existing = repo.findByTokenHash(hash)
+				.orElseThrow(() -> new InvalidTokenException("Refresh token not found"));
+		if (existing.isRevoked()) {
+			if (!refreshTokenCache.isFamilyDenied(existing.getFamilyId())) {
+				revokeFamily(existing.getFamilyId());
+			}
+			return new InvalidTokenException("Refresh token expired or revoked");
+		}
+		if (existing.getExpiresAt().isBefore(now)) {
+			return new InvalidTokenException("Refresh token expired or revoked");
+		}
+		return new InvalidTokenException("Client mismatch");
+	}
+}
@@ -4,8 +4,7 @@ import dev.api.auth.authservice.api.auth.entities.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
-import java.util.UUID;
 
-public interface ResetTokenRepository extends JpaRepository<PasswordResetToken, UUID> {
+public interface ResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
 	Optional<PasswordResetToken> findByTokenHash(String tokenHash);
 }
@@ -0,0 +1,86 @@
+package dev.api.auth.authservice.api.auth;
+
+import dev.api.auth.authservice.api.auth.entities.RevokeSessionsRequest;
+import dev.api.auth.authservice.api.auth.entities.SessionDto;
+import dev.api.auth.authservice.api.users.UserService;
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/auth/sessions")
+@Tag(name = "Sessions", description = "Active session management")
+public class SessionController {
+
+	private static final int MAX_BULK_USERS = 10_000;
+
+	private final RefreshTokenService refreshTokenService;
+	private final UserService userService;
+
+	public SessionController(RefreshTokenService refreshTokenService, UserService userService) {
+		this.refreshTokenService = refreshTokenService;
+		this.userService = userService;
+	}
+
+	@GetMapping
+	@Operation(summary = "List Sessions", description = "List the active sessions of the current user")
+	@ApiResponses(value = {
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Successful retrieval of sessions"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access")
+	})
+	public List<SessionDto> listSessions(Authentication auth) {
+		return refreshTokenService.listSessions(currentUserId(auth));
+	}
+
+	@DeleteMapping("/{jti}")
+	@Operation(summary = "Revoke Session", description = "Revoke one session of the current user")
+	@ApiResponses(value = {
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Session revoked"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Session not found")
+	})
+	public void revokeSession(@PathVariable UUID jti, Authentication auth) {
+		refreshTokenService.revokeSession(currentUserId(auth), jti);
+	}
+
+	@DeleteMapping
+	@Operation(summary = "Revoke All Sessions", description = "Revoke every session of the current user")
+	@ApiResponses(value = {
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Sessions revoked"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access")
+	})
+	public Map<String, Integer> revokeAllSessions(Authentication auth) {
+		return Map.of("revoked", refreshTokenService.revokeAllForUsers(List.of(currentUserId(auth))));
+	}
+
+	@PostMapping("/revoke")
+	@PreAuthorize("hasRole('ADMIN')")
+	@Operation(summary = "Revoke Sessions of Users", description = "Revoke every session of the given users")
+	@ApiResponses(value = {
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Sessions revoked"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden access")
+	})
+	public Map<String, Integer> revokeSessionsOfUsers(@RequestBody RevokeSessionsRequest dto) {
+		if (dto.userIds() == null || dto.userIds().isEmpty()) {
+			throw ApiException.badRequest("userIds must not be empty");
+		}
+		if (dto.userIds().size() > MAX_BULK_USERS) {
+			throw ApiException.badRequest("At most " + MAX_BULK_USERS + " users can be revoked at once");
+		}
+		return Map.of("revoked", refreshTokenService.revokeAllForUsers(dto.userIds()));
+	}
+
+	private Long currentUserId(Authentication auth) {
+		return userService.getCurrent(auth).getId();
+	}
+}
@@ -22,9 +22,12 @@ public class PasswordResetToken {
 	@Column(name="token_hash", nullable=false, length = 128, unique=true)
 	private String tokenHash;
 
-	@Column(name="created_at", nullable=false)
+	@Column(name="used", nullable=false)
 	private boolean used = false;
 
+	@Column(name="created_at", nullable=false, updatable=false)
+	private Instant createdAt = Instant.now();
+
 	@Column(name="expires_at", nullable=false)
 	private Instant expiresAt;
 
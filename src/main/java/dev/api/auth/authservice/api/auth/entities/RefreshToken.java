@@ -3,9 +3,14 @@ package dev.api.auth.authservice.api.auth.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -13,7 +18,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "auth_refresh_tokens")
 @Getter @Setter
-public class RefreshToken {
+public class RefreshToken implements Persistable<UUID> {
 
 	@Id
 	@Column(nullable=false, updatable=false)
@@ -23,13 +28,16 @@ public class RefreshToken {
 	private UUID jti = UUID.randomUUID();
 
 	@Column(name="user_id", nullable=false)
-	private String userEmail;
+	private Long userId;
+
+	@Column(name="user_email", nullable=false)
+	private String userEmail; // access token subject
 
 	@Column(name="client_id")
 	private String clientId;
 
-	@Column(name="token_hash", nullable=false, length = 128)
-	private String tokenHash; // sha256 hex
+	@Column(name="token_hash", nullable=false, length = 32)
+	private byte[] tokenHash; // raw sha256
 
 	@Column(name="created_at", nullable=false)
 	private Instant createdAt = Instant.now();
@@ -43,6 +51,12 @@ public class RefreshToken {
 	@Column(nullable=false)
 	private boolean revoked = false;
 
+	@Column(name="revoked_at")
+	private Instant revokedAt; // start of the revoked retention
+
+	@Column(name="family_id", nullable=false, updatable=false)
+	private UUID familyId; // jti of the first token of the session, shared by all its rotations
+
 	@Column(name="replaced_by_jti")
 	private UUID replacedByJti;
 
@@ -51,4 +65,23 @@ public class RefreshToken {
 
 	@Column(name="user_agent")
 	private String userAgent;
+
+	@Transient
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+	private boolean persisted;
+
+	/**
+	 * Ids are assigned up front, so without this Spring Data would {@code merge} every new token,
+	 * issuing a SELECT before the INSERT.
+	 */
+	@Override
+	public boolean isNew() {
+		return !persisted;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markPersisted() {
+		persisted = true;
+	}
 }
@@ -0,0 +1,8 @@
+package dev.api.auth.authservice.api.auth.entities;
+
+import java.util.List;
+
+/**
+ * Users whose sessions are revoked at once.
+ */
+public record RevokeSessionsRequest(List<Long> userIds) {}
@@ -0,0 +1,9 @@
+package dev.api.auth.authservice.api.auth.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Columns of a refresh token as they were when it was rotated out.
+ */
+public record RotatedToken(UUID jti, UUID familyId, Long userId, String userEmail, String clientId, Instant expiresAt) {}
@@ -0,0 +1,15 @@
+package dev.api.auth.authservice.api.auth.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An active session, i.e. an unrevoked, unexpired refresh token.
+ */
+public record SessionDto(UUID jti,
+						 String clientId,
+						 Instant createdAt,
+						 Instant lastUsedAt,
+						 Instant expiresAt,
+						 String ipAddress,
+						 String userAgent) {}
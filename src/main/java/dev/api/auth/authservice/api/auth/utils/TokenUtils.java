@@ -24,11 +24,22 @@ public class TokenUtils {
 	}
 
 	public String hashToken(String token) {
+		return HexFormat.of().formatHex(digestToken(token));
+	}
+
+	/**
+	 * Hashes a token into its raw 32-byte SHA-256 digest, half the size of {@link #hashToken(String)}
+	 * when stored and indexed.
+	 *
+	 * @param token the raw token
+	 * @return the digest
+	 */
+	public byte[] digestToken(String token) {
 		try {
 			MessageDigest md = MessageDigest.getInstance("SHA-256");
 			md.update(token.getBytes(StandardCharsets.UTF_8));
 			if (!pepper.isEmpty()) md.update(pepper.getBytes(StandardCharsets.UTF_8));
-			return HexFormat.of().formatHex(md.digest());
+			return md.digest();
 		} catch (NoSuchAlgorithmException e) {
 			throw new IllegalStateException(e);
 		}
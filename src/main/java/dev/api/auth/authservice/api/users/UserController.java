@@ -3,15 +3,24 @@ package dev.api.auth.authservice.api.users;
 import dev.api.auth.authservice.api.users.dtos.PasswordChange;
 import dev.api.auth.authservice.api.users.dtos.UpdateUserDto;
 import dev.api.auth.authservice.api.users.dtos.UserDto;
+import dev.api.auth.authservice.common.advice.SkipResponseFormat;
+import dev.api.auth.authservice.common.entities.ExportFormat;
+import dev.api.auth.authservice.common.entities.search.CursorPage;
+import dev.api.auth.authservice.common.entities.search.PagedResult;
 import dev.api.auth.authservice.common.entities.search.SearchCriteria;
+import dev.api.auth.authservice.common.interceptors.limiting.RateLimited;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -28,6 +37,7 @@ public class UserController {
 	}
 
 	@GetMapping()
+	@RateLimited(cost = 5)
 	@PreAuthorize("hasRole('ADMIN')")
 	@Operation(summary = "Get paginated Users", description = "Retrieve a list of paginated users")
 	@ApiResponses(value = {
@@ -35,11 +45,36 @@ public class UserController {
 		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access"),
 		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden access")
 	})
-	public List<UserDto> getUsers(@RequestParam SearchCriteria searchCriteria) {
-		return userService.list(searchCriteria);
+	public PagedResult<UserDto> getUsers(@RequestParam(required = false) SearchCriteria searchCriteria) {
+		return userService.list(searchCriteria != null ? searchCriteria : new SearchCriteria());
+	}
+
+	@GetMapping("/scroll")
+	@RateLimited(cost = 2)
+	@PreAuthorize("hasRole('ADMIN')")
+	@Operation(summary = "Scroll Users", description = "Retrieve users with keyset pagination, pass nextCursor as after to get the next slice")
+	@ApiResponses(value = {
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Successful retrieval of user slice"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or criteria"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden access")
+	})
+	public CursorPage<UserDto> scrollUsers(@RequestParam(required = false) SearchCriteria searchCriteria,
+										   @RequestParam(required = false) String after,
+										   @RequestParam(required = false) Integer limit,
+										   @RequestParam(required = false) String sortBy,
+										   @RequestParam(required = false) String direction) {
+		return userService.scroll(
+				searchCriteria != null ? searchCriteria.getFilters() : null,
+				sortBy,
+				direction,
+				after,
+				limit
+		);
 	}
 
 	@GetMapping("/all")
+	@RateLimited(cost = 20)
 	@PreAuthorize("hasRole('ADMIN')")
 	@Operation(summary = "Get All Users", description = "Retrieve a list of all users")
 	@ApiResponses(value = {
@@ -53,6 +88,30 @@ public class UserController {
 				: userService.findAll();
 	}
 
+	@GetMapping("/export")
+	@RateLimited(cost = 50)
+	@SkipResponseFormat
+	@PreAuthorize("hasRole('ADMIN')")
+	@Operation(summary = "Export Users", description = "Stream every user as NDJSON or CSV, ordered by id")
+	@ApiResponses(value = {
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export stream"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported format"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized access"),
+		@io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden access")
+	})
+	public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String format,
+															 @RequestParam(defaultValue = "false") boolean includeDeleted) {
+		ExportFormat exportFormat = ExportFormat.from(format);
+		StreamingResponseBody body = out -> userService.export(includeDeleted, exportFormat, out);
+		return ResponseEntity.ok()
+				.contentType(exportFormat.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+						.filename("users." + exportFormat.getExtension())
+						.build()
+						.toString())
+				.body(body);
+	}
+
 	@GetMapping("/me")
 	@Operation(summary = "Get Current User", description = "Retrieve details of the currently authenticated user")
 	@ApiResponses(value = {
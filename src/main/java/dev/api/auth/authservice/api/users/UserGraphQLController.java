@@ -1,33 +1,67 @@
 package dev.api.auth.authservice.api.users;
 
+import dev.api.auth.authservice.api.users.dtos.UserConnection;
 import dev.api.auth.authservice.api.users.dtos.UserDto;
+import dev.api.auth.authservice.common.exceptions.ResourceNotFoundException;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.security.core.Authentication;
-import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * GraphQL controller for user-related queries.
+ * Users looked up by id are batched through a DataLoader, so every {@code user(id:)} of a query
+ * is resolved by one {@code IN} query.
  */
-@Component
+@Controller
 public class UserGraphQLController {
 
+	private static final Set<String> USER_FIELDS = Set.of("id", "username", "email", "role");
+
 	private final UserService userService;
 
-	public UserGraphQLController(UserService userService) {
+	public UserGraphQLController(UserService userService, BatchLoaderRegistry batchLoaderRegistry) {
 		this.userService = userService;
+		batchLoaderRegistry.forTypePair(Long.class, UserDto.class)
+				.registerMappedBatchLoader((ids, env) -> Mono.fromCallable(() -> userService.findAllByIds(ids)));
+	}
+
+	@QueryMapping
+	public CompletableFuture<UserDto> user(@Argument Long id, DataLoader<Long, UserDto> userLoader) {
+		return userLoader.load(id).thenApply(user -> {
+			if (user == null) throw new ResourceNotFoundException("User with id " + id + " not found");
+			return user;
+		});
 	}
 
+	/**
+	 * Selections of every column are served from the cached list, others load only the selected columns.
+	 */
 	@QueryMapping
-	public UserDto user(@Argument Long id) {
-		return userService.findById(id);
+	public List<UserDto> allUsers(DataFetchingFieldSelectionSet selectionSet) {
+		Set<String> fields = selectionSet.getImmediateFields().stream()
+				.map(SelectedField::getName)
+				.filter(USER_FIELDS::contains)
+				.collect(Collectors.toSet());
+		return fields.containsAll(USER_FIELDS) ? userService.findAll() : userService.findAll(fields);
 	}
 
 	@QueryMapping
-	public List<UserDto> allUsers() {
-		return userService.findAll();
+	public UserConnection usersConnection(@Argument Integer first,
+										  @Argument String after,
+										  @Argument String sortBy,
+										  @Argument String direction) {
+		return userService.connection(first, after, sortBy, direction);
 	}
 
 	@QueryMapping
@@ -1,11 +1,48 @@
 package dev.api.auth.authservice.api.users;
 
 
+import dev.api.auth.authservice.api.users.dtos.UserDto;
 import dev.api.auth.authservice.common.audit.AuditRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends AuditRepository<User, Long> {
+public interface UserRepository extends AuditRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
 	Optional<User> findByEmail(String email);
 	Optional<User> findByUsername(String username);
+
+	/**
+	 * Loads the users with the given ids as DTO projections in one {@code IN} query.
+	 */
+	@Query("SELECT new dev.api.auth.authservice.api.users.dtos.UserDto(u.id, u.username, u.email, u.role) "
+			+ "FROM User u WHERE u.id IN :ids")
+	List<UserDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Streams users ordered by id as DTO projections, fetching a bounded number of rows per round trip.
+	 * Must be consumed inside a transaction and closed after use.
+	 */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+	})
+	@Query("SELECT new dev.api.auth.authservice.api.users.dtos.UserDto(u.id, u.username, u.email, u.role) "
+			+ "FROM User u WHERE :includeDeleted = true OR u.deletedAt IS NULL ORDER BY u.id")
+	Stream<UserDto> streamForExport(@Param("includeDeleted") boolean includeDeleted);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE User u SET u.password_hash = :newHash WHERE u.id = :id AND u.password_hash = :oldHash")
+	int upgradePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
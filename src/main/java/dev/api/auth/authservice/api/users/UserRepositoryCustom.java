@@ -0,0 +1,18 @@
+package dev.api.auth.authservice.api.users;
+
+import dev.api.auth.authservice.api.users.dtos.UserDto;
+
+import java.util.List;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+	/**
+	 * Loads every user that is not deleted, ordered by id, selecting only the given columns.
+	 * The id is always selected; members for unselected columns are null.
+	 *
+	 * @param fields the {@link UserDto} members to load
+	 * @return the users
+	 */
+	List<UserDto> findAllProjected(Set<String> fields);
+}
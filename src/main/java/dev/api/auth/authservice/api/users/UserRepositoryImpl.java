@@ -0,0 +1,44 @@
+package dev.api.auth.authservice.api.users;
+
+import dev.api.auth.authservice.api.users.dtos.UserDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+	private static final List<String> COLUMNS = List.of("username", "email", "role");
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<UserDto> findAllProjected(Set<String> fields) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<User> root = query.from(User.class);
+		List<Selection<?>> selections = new ArrayList<>();
+		selections.add(root.get("id").alias("id"));
+		for (String column : COLUMNS) {
+			if (fields.contains(column)) selections.add(root.get(column).alias(column));
+		}
+		query.multiselect(selections)
+				.where(cb.isNull(root.get("deletedAt")))
+				.orderBy(cb.asc(root.get("id")));
+		return entityManager.createQuery(query).getResultStream()
+				.map(t -> new UserDto(
+						t.get("id", Long.class),
+						fields.contains("username") ? t.get("username", String.class) : null,
+						fields.contains("email") ? t.get("email", String.class) : null,
+						fields.contains("role") ? t.get("role", String.class) : null))
+				.toList();
+	}
+}
@@ -1,10 +1,21 @@
 package dev.api.auth.authservice.api.users;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import dev.api.auth.authservice.api.users.dtos.PasswordChange;
 import dev.api.auth.authservice.api.users.dtos.UpdateUserDto;
+import dev.api.auth.authservice.api.users.dtos.UserConnection;
 import dev.api.auth.authservice.api.users.dtos.UserDto;
+import dev.api.auth.authservice.common.cache.CacheNames;
+import dev.api.auth.authservice.common.entities.ExportFormat;
+import dev.api.auth.authservice.common.entities.StandardParameters;
+import dev.api.auth.authservice.common.entities.search.CursorPage;
+import dev.api.auth.authservice.common.entities.search.KeysetCursor;
+import dev.api.auth.authservice.common.entities.search.PagedResult;
 import dev.api.auth.authservice.common.entities.search.SearchCriteria;
-import dev.api.auth.authservice.common.entities.search.SqlParameters;
+import dev.api.auth.authservice.common.entities.search.SearchSpecifications;
 import dev.api.auth.authservice.common.exceptions.ResourceNotFoundException;
 import dev.api.auth.authservice.common.kafka.EntityEventPublisher;
 import dev.api.auth.authservice.common.kafka.KafkaMessage;
@@ -12,111 +23,196 @@ import dev.api.auth.authservice.common.kafka.events.KafkaTopics;
 import dev.api.auth.authservice.common.kafka.events.users.UserDeletedEvent;
 import dev.api.auth.authservice.common.kafka.events.users.UserRestoredEvent;
 import dev.api.auth.authservice.common.kafka.events.users.UserUpdatedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
+	private static final Map<String, Class<?>> SEARCHABLE_FIELDS = Map.of(
+			"id", Long.class,
+			"username", String.class,
+			"email", String.class,
+			"role", String.class
+	);
+
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
 	private final EntityEventPublisher eventPublisher;
+	private final ObjectMapper objectMapper;
+	private final CacheManager cacheManager;
 
 	public UserService(
 			UserRepository userRepository,
 			PasswordEncoder passwordEncoder,
-			EntityEventPublisher eventPublisher) {
+			EntityEventPublisher eventPublisher,
+			ObjectMapper objectMapper,
+			CacheManager cacheManager) {
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.eventPublisher = eventPublisher;
+		this.objectMapper = objectMapper;
+		this.cacheManager = cacheManager;
 	}
 
 	/**
-	 * Gets all users
+	 * Gets a page of users matching the search criteria.
+	 * Filtering, sorting, paging and counting are done by the database.
 	 *
-	 * @return List<User> - all users
+	 * @param searchCriteria - filters, sorters and 1-based page
+	 * @return PagedResult<UserDto> - requested page and total matches
 	 */
-	public List<UserDto> list(SearchCriteria searchCriteria) {
-		return this.userRepository.findAll().stream()
-				.filter(user -> {
-					if (searchCriteria.getFilters() != null) {
-						for (SearchCriteria.Filter filter : searchCriteria.getFilters()) {
-							boolean like = Objects.equals(filter.operator().toString(), SqlParameters.SqlOperator.LIKE);
-							if (filter.field().equals("username") && like) {
-								String value = (String) filter.value();
-								if (!user.getUsername().contains(value)) {
-									return false;
-								}
-							}
-							if (filter.field().equals("email") && like) {
-								String value = (String) filter.value();
-								if (!user.getEmail().contains(value)) {
-									return false;
-								}
-							}
-						}
-					}
-					return true;
-				})
-				.map(User::toDto)
-				.sorted((u1, u2) -> {
-					if (searchCriteria.getSorters() != null) {
-						for (SearchCriteria.Sorter sorter : searchCriteria.getSorters()) {
-							boolean asc = Objects.equals(sorter.operator().toString(), SqlParameters.SqlOrder.ASC);
-							if (sorter.field().equals("username")) {
-								if (asc) {
-									return u1.getUsername().compareTo(u2.getUsername());
-								} else {
-									return u2.getUsername().compareTo(u1.getUsername());
-								}
-							}
-							if (sorter.field().equals("email")) {
-								if (asc) {
-									return u1.getEmail().compareTo(u2.getEmail());
-								} else {
-									return u2.getEmail().compareTo(u1.getEmail());
-								}
-							}
-						}
-					}
-					return u1.getId().compareTo(u2.getId());
-				})
-				.skip(searchCriteria.getPage() != null && searchCriteria.getPageSize() != null
-						? (long) (searchCriteria.getPage() - 1) * searchCriteria.getPageSize()
-						: 0L)
-				.limit(searchCriteria.getPageSize() != null ? searchCriteria.getPageSize() : Long.MAX_VALUE)
-				.toList();
+	@Transactional(readOnly = true)
+	public PagedResult<UserDto> list(SearchCriteria searchCriteria) {
+		Specification<User> spec = Specification.allOf(
+				notDeleted(),
+				SearchSpecifications.from(searchCriteria.getFilters(), SEARCHABLE_FIELDS.keySet())
+		);
+		Page<User> page = this.userRepository.findAll(spec, SearchSpecifications.pageable(searchCriteria, SEARCHABLE_FIELDS.keySet()));
+		return new PagedResult<>(
+				page.getContent().stream().map(User::toDto).toList(),
+				page.getNumber() + 1,
+				page.getSize(),
+				page.getTotalElements()
+		);
+	}
+
+	/**
+	 * Gets the next slice of users using keyset pagination.
+	 * The query seeks past the (sort key, id) of the last row instead of skipping an offset,
+	 * so deep slices cost the same as the first one.
+	 *
+	 * @param filters   - optional filters, resent with every slice
+	 * @param sortBy    - sort field for the first slice, ignored when a cursor is given
+	 * @param direction - ASC or DESC for the first slice, ignored when a cursor is given
+	 * @param after     - cursor returned with the previous slice, null for the first one
+	 * @param limit     - maximum number of users to return
+	 * @return CursorPage<UserDto> - the slice and the cursor to the next one
+	 */
+	@Transactional(readOnly = true)
+	public CursorPage<UserDto> scroll(SearchCriteria.Filter[] filters, String sortBy, String direction, String after, Integer limit) {
+		KeysetCursor cursor = cursor(sortBy, direction, after);
+		Window<User> window = window(filters, cursor, limit);
+		String nextCursor = window.hasNext() && !window.isEmpty()
+				? cursor.next(window.positionAt(window.size() - 1)).encode()
+				: null;
+		return new CursorPage<>(
+				window.getContent().stream().map(User::toDto).toList(),
+				nextCursor,
+				window.hasNext()
+		);
 	}
 
 	/**
-	 * Gets all users
+	 * Gets the next slice of users as a Relay style connection.
 	 *
-	 * @return List<User> - all users
+	 * @param first     - maximum number of users to return
+	 * @param after     - end cursor of the previous slice, null for the first one
+	 * @param sortBy    - sort field for the first slice, ignored when a cursor is given
+	 * @param direction - ASC or DESC for the first slice, ignored when a cursor is given
+	 * @return UserConnection - the edges and page info
 	 */
-	@Cacheable(value = "users", key = "'all'")
+	@Transactional(readOnly = true)
+	public UserConnection connection(Integer first, String after, String sortBy, String direction) {
+		KeysetCursor cursor = cursor(sortBy, direction, after);
+		Window<User> window = window(null, cursor, first);
+		List<UserConnection.Edge> edges = new ArrayList<>(window.size());
+		for (int i = 0; i < window.size(); i++) {
+			edges.add(new UserConnection.Edge(
+					window.getContent().get(i).toDto(),
+					cursor.next(window.positionAt(i)).encode()
+			));
+		}
+		return new UserConnection(edges, new UserConnection.PageInfo(
+				window.hasNext(),
+				after != null && !after.isBlank(),
+				edges.isEmpty() ? null : edges.getFirst().cursor(),
+				edges.isEmpty() ? null : edges.getLast().cursor()
+		));
+	}
+
+	/**
+	 * Gets all users that are not deleted, like {@link #list}
+	 *
+	 * @return List<User> - all users that are not deleted
+	 */
+	@Cacheable(value = CacheNames.USER_LISTS, key = "'all'")
 	public List<UserDto> findAll() {
-		return this.userRepository.findAll().stream()
+		return this.userRepository.findAll(notDeleted(), Sort.by(StandardParameters.DEFAULT_SORT_BY)).stream()
 				.map(User::toDto)
-				.sorted(Comparator.comparing(UserDto::getId))
 				.toList();
 	}
 
+	/**
+	 * Gets all users that are not deleted, loading only the given columns
+	 *
+	 * @param fields - the UserDto members to load, the id is always loaded
+	 * @return List<UserDto> - users ordered by id, unselected members are null
+	 */
+	@Transactional(readOnly = true)
+	public List<UserDto> findAll(Set<String> fields) {
+		return this.userRepository.findAllProjected(fields);
+	}
+
+	/**
+	 * Gets the users with the given IDs. Users cached by {@link #findById} are served from the cache,
+	 * the rest are loaded with a single query and cached.
+	 *
+	 * @param ids - the users' IDs
+	 * @return Map<Long, UserDto> - found users by ID, unknown IDs are absent
+	 */
+	@Transactional(readOnly = true)
+	public Map<Long, UserDto> findAllByIds(Collection<Long> ids) {
+		Cache cache = cacheManager.getCache(CacheNames.USERS_BY_ID);
+		Map<Long, UserDto> found = new HashMap<>(ids.size());
+		List<Long> misses = new ArrayList<>();
+		for (Long id : ids) {
+			UserDto cached = cache != null ? cache.get(id, UserDto.class) : null;
+			if (cached != null) found.put(id, cached);
+			else misses.add(id);
+		}
+		if (!misses.isEmpty()) {
+			for (UserDto user : this.userRepository.findDtosByIdIn(misses)) {
+				found.put(user.getId(), user);
+				if (cache != null) cache.put(user.getId(), user);
+			}
+		}
+		return found;
+	}
+
 	/**
 	 * Gets all users including deleted ones
 	 *
 	 * @return List<User> - all users including deleted ones
 	 */
-	@Cacheable(value = "users", key = "'allIncludingDeleted'")
+	@Cacheable(value = CacheNames.USER_LISTS, key = "'allIncludingDeleted'")
 	public List<UserDto> findAllIncludingDeleted() {
 		return this.userRepository.findAllIncludingDeleted().stream()
 				.map(User::toDto)
@@ -124,12 +220,48 @@ public class UserService {
 				.toList();
 	}
 
+	/**
+	 * Writes every user, ordered by id, to the output stream. Rows are read through a
+	 * forward-only cursor and written one at a time, so memory use does not depend on
+	 * the number of users.
+	 *
+	 * @param includeDeleted - whether soft-deleted users are exported
+	 * @param format         - NDJSON or CSV
+	 * @param out            - the response stream
+	 * @throws IOException - if writing to the stream fails
+	 */
+	@Transactional(readOnly = true)
+	public void export(boolean includeDeleted, ExportFormat format, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try (Stream<UserDto> users = this.userRepository.streamForExport(includeDeleted)) {
+			switch (format) {
+				case NDJSON -> {
+					ObjectWriter json = objectMapper.writerFor(UserDto.class)
+							.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+							.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+					for (UserDto user : (Iterable<UserDto>) users::iterator) {
+						json.writeValue(writer, user);
+						writer.write('\n');
+					}
+				}
+				case CSV -> {
+					writer.write("id,username,email,role\n");
+					for (UserDto user : (Iterable<UserDto>) users::iterator) {
+						writer.write(user.getId() + "," + csv(user.getUsername()) + "," + csv(user.getEmail()) + "," + csv(user.getRole()) + "\n");
+					}
+				}
+			}
+		}
+		writer.flush();
+	}
+
 	/**
 	 * Get the current authenticated user
 	 *
 	 * @param auth - Authentication object
 	 * @return User - current user
 	 */
+	@Cacheable(value = CacheNames.USERS_BY_EMAIL, key = "#auth.name")
 	public UserDto getCurrent(Authentication auth) {
 		String email = auth.getName();
 		return findByEmail(email);
@@ -141,7 +273,7 @@ public class UserService {
 	 * @param id - the user's ID
 	 * @return User - requested user
 	 */
-	@Cacheable(value = "users", key = "#id")
+	@Cacheable(value = CacheNames.USERS_BY_ID, key = "#id")
 	public UserDto findById(Long id) {
 		Optional<User> requestedUser = this.userRepository.findById(id);
 		if (requestedUser.isPresent()) {
@@ -158,7 +290,7 @@ public class UserService {
 	 * @param id - the user's ID
 	 * @return User - requested user
 	 */
-	@Cacheable(value = "users", key = "#id")
+	@Cacheable(value = CacheNames.USERS_BY_ID_INCLUDING_DELETED, key = "#id")
 	public UserDto findByIdIncludingDeleted(Long id) {
 		Optional<User> requestedUser = this.userRepository.findByIdIncludingDeleted(id).stream().findFirst();
 		if (requestedUser.isPresent()) {
@@ -175,6 +307,7 @@ public class UserService {
 	 * @param email - the user's email
 	 * @return User - requested user
 	 */
+	@Cacheable(value = CacheNames.USERS_BY_EMAIL, key = "#email")
 	public UserDto findByEmail(String email) {
 		Optional<User> requestedUser = this.userRepository.findByEmail(email);
 		if (requestedUser.isPresent()) {
@@ -191,6 +324,7 @@ public class UserService {
 	 * @param username - the user's username
 	 * @return User - requested user
 	 */
+	@Cacheable(value = CacheNames.USERS_BY_USERNAME, key = "#username")
 	public UserDto findByUsername(String username) {
 		Optional<User> requestedUser = this.userRepository.findByUsername(username);
 		if (requestedUser.isPresent()) {
@@ -209,9 +343,9 @@ public class UserService {
 	 */
 	@Transactional
 	@Caching(evict = {
-			@CacheEvict(value = "users", key = "'all'"),
-			@CacheEvict(value = "users", key = "'allIncludingDeleted'"),
-			@CacheEvict(value = "users", key = "#dto.id()")
+			@CacheEvict(value = CacheNames.USER_LISTS, allEntries = true),
+			@CacheEvict(value = {CacheNames.USERS_BY_ID, CacheNames.USERS_BY_ID_INCLUDING_DELETED}, key = "#dto.id()"),
+			@CacheEvict(value = {CacheNames.USERS_BY_EMAIL, CacheNames.USERS_BY_USERNAME}, allEntries = true)
 	})
 	public UserDto update(UpdateUserDto dto) {
 		if (this.userRepository.existsById(dto.id())) {
@@ -219,6 +353,7 @@ public class UserService {
 			UserDto updatedDto = updated.toDto();
 			eventPublisher.publishEvent(
 					KafkaTopics.USER_EVENTS,
+					String.valueOf(updatedDto.getId()),
 					KafkaMessage.KafkaMessageType.UPDATE_ENTITY,
 					new UserUpdatedEvent(updatedDto)
 			);
@@ -250,6 +385,7 @@ public class UserService {
 		UserDto savedDto = saved.toDto();
 		eventPublisher.publishEvent(
 				KafkaTopics.USER_EVENTS,
+				String.valueOf(savedDto.getId()),
 				KafkaMessage.KafkaMessageType.UPDATE_ENTITY,
 				new UserUpdatedEvent(savedDto)
 		);
@@ -272,6 +408,7 @@ public class UserService {
 		UserDto savedDto = saved.toDto();
 		eventPublisher.publishEvent(
 				KafkaTopics.USER_EVENTS,
+				String.valueOf(savedDto.getId()),
 				KafkaMessage.KafkaMessageType.UPDATE_ENTITY,
 				new UserUpdatedEvent(savedDto)
 		);
@@ -286,9 +423,9 @@ public class UserService {
 	 */
 	@Transactional
 	@Caching(evict = {
-			@CacheEvict(value = "users", key = "'all'"),
-			@CacheEvict(value = "users", key = "'allIncludingDeleted'"),
-			@CacheEvict(value = "users", key = "#id")
+			@CacheEvict(value = CacheNames.USER_LISTS, allEntries = true),
+			@CacheEvict(value = {CacheNames.USERS_BY_ID, CacheNames.USERS_BY_ID_INCLUDING_DELETED}, key = "#id"),
+			@CacheEvict(value = {CacheNames.USERS_BY_EMAIL, CacheNames.USERS_BY_USERNAME}, allEntries = true)
 	})
 	public void delete(Long id) {
 		this.userRepository.delete(
@@ -298,6 +435,7 @@ public class UserService {
 		);
 		eventPublisher.publishEvent(
 				KafkaTopics.USER_EVENTS,
+				String.valueOf(id),
 				KafkaMessage.KafkaMessageType.DELETE_ENTITY,
 				new UserDeletedEvent(id)
 		);
@@ -311,9 +449,9 @@ public class UserService {
 	 */
 	@Transactional
 	@Caching(evict = {
-			@CacheEvict(value = "users", key = "'all'"),
-			@CacheEvict(value = "users", key = "'allIncludingDeleted'"),
-			@CacheEvict(value = "users", key = "#id")
+			@CacheEvict(value = CacheNames.USER_LISTS, allEntries = true),
+			@CacheEvict(value = {CacheNames.USERS_BY_ID, CacheNames.USERS_BY_ID_INCLUDING_DELETED}, key = "#id"),
+			@CacheEvict(value = {CacheNames.USERS_BY_EMAIL, CacheNames.USERS_BY_USERNAME}, allEntries = true)
 	})
 	public UserDto restoreById(Long id) {
 		Optional<User> originalUser = this.userRepository.findByIdIncludingDeleted(id).stream().findFirst();
@@ -324,9 +462,40 @@ public class UserService {
 		UserDto restoredUser = originalUser.get().toDto();
 		eventPublisher.publishEvent(
 				KafkaTopics.USER_EVENTS,
+				String.valueOf(restoredUser.getId()),
 				KafkaMessage.KafkaMessageType.RESTORE_ENTITY,
 				new UserRestoredEvent(restoredUser)
 		);
 		return restoredUser;
 	}
+
+	private static KeysetCursor cursor(String sortBy, String direction, String after) {
+		return after != null && !after.isBlank()
+				? KeysetCursor.decode(after, SEARCHABLE_FIELDS)
+				: KeysetCursor.first(sortBy, direction, SEARCHABLE_FIELDS);
+	}
+
+	private Window<User> window(SearchCriteria.Filter[] filters, KeysetCursor cursor, Integer limit) {
+		Specification<User> spec = Specification.allOf(
+				notDeleted(),
+				SearchSpecifications.from(filters, SEARCHABLE_FIELDS.keySet())
+		);
+		int size = SearchSpecifications.pageSize(limit);
+		return this.userRepository.findBy(spec, query -> query
+				.sortBy(cursor.sort())
+				.limit(size)
+				.scroll(cursor.position()));
+	}
+
+	private static String csv(String value) {
+		if (value == null) return "";
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static Specification<User> notDeleted() {
+		return (root, query, cb) -> cb.isNull(root.get("deletedAt"));
+	}
 }
@@ -0,0 +1,26 @@
+package dev.api.auth.authservice.api.users.dtos;
+
+import java.util.List;
+
+/**
+ * Relay style connection returned by the {@code usersConnection} GraphQL query.
+ *
+ * @param edges    the users of this slice with their cursors
+ * @param pageInfo paging information for the slice
+ */
+public record UserConnection(List<Edge> edges, PageInfo pageInfo) {
+
+	/**
+	 * @param node   the user
+	 * @param cursor cursor pointing right after this user
+	 */
+	public record Edge(UserDto node, String cursor) {}
+
+	/**
+	 * @param hasNextPage     whether more users follow
+	 * @param hasPreviousPage whether the slice was requested with an {@code after} cursor
+	 * @param startCursor     cursor of the first edge
+	 * @param endCursor       cursor of the last edge, to pass as {@code after}
+	 */
+	public record PageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) {}
+}
@@ -4,9 +4,11 @@ import dev.api.auth.authservice.common.entities.ApiEnvelopeResponseCode;
 import dev.api.auth.authservice.common.exceptions.ApiException;
 import dev.api.auth.authservice.common.exceptions.RateLimitExceededException;
 import dev.api.auth.authservice.common.exceptions.ResourceNotFoundException;
+import dev.api.auth.authservice.common.exceptions.ServiceUnavailableException;
 import dev.api.auth.authservice.common.filter.ApiEnvelope;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -107,14 +109,28 @@ public class GlobalExceptionHandler {
 
 	@ExceptionHandler(RateLimitExceededException.class)
 	public ResponseEntity<ApiEnvelope<Void>> handleRateLimitExceeded(RateLimitExceededException ex, HttpServletRequest req) {
-		return ResponseEntity
-				.status(HttpStatus.TOO_MANY_REQUESTS)
+		ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+		if (ex.getRetryAfter() != null) {
+			response.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+		}
+		return response
 				.body(ApiEnvelope.error(
 						ApiEnvelopeResponseCode.TOO_MANY_REQUESTS.name(),
 						ex.getMessage(),
 						req.getRequestURI()));
 	}
 
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<ApiEnvelope<Void>> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+		return ResponseEntity
+				.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+				.body(ApiEnvelope.error(
+						ApiEnvelopeResponseCode.SERVICE_UNAVAILABLE.name(),
+						ex.getMessage(),
+						req.getRequestURI()));
+	}
+
 	/** Handle ErrorResponseException for other HTTP status codes. */
 	@ExceptionHandler(ErrorResponseException.class)
 	public ResponseEntity<ApiEnvelope<Void>> handleErrorResponse(ErrorResponseException ex, HttpServletRequest req) {
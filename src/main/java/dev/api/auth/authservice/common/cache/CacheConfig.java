@@ -0,0 +1,49 @@
+package dev.api.auth.authservice.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Caffeine-backed cache manager with a separately sized cache per name.
+ * Statistics are recorded so the actuator cache metrics report hits, misses and evictions.
+ * <p>
+ * Caches are transaction aware: puts and evictions made inside a transaction are applied after
+ * it commits, so an {@code @CacheEvict} on a {@code @Transactional} method cannot run before the
+ * change is visible and let a concurrent reader cache the old row again.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	private static final List<String> CACHES = List.of(
+			CacheNames.USERS_BY_ID,
+			CacheNames.USERS_BY_ID_INCLUDING_DELETED,
+			CacheNames.USERS_BY_EMAIL,
+			CacheNames.USERS_BY_USERNAME,
+			CacheNames.USER_LISTS
+	);
+
+	@Bean
+	public CacheManager cacheManager(CacheSpecProperties props) {
+		CaffeineCacheManager manager = new CaffeineCacheManager();
+		manager.setAllowNullValues(false);
+		manager.setCaffeine(builder(props.getDefaultSpec()));
+		for (String name : CACHES) {
+			String spec = props.getSpecs().getOrDefault(name, props.getDefaultSpec());
+			manager.registerCustomCache(name, builder(spec).build());
+		}
+		return new TransactionAwareCacheManagerProxy(manager);
+	}
+
+	private static Caffeine<Object, Object> builder(String spec) {
+		Caffeine<Object, Object> builder = Caffeine.from(spec);
+		return spec.contains("recordStats") ? builder : builder.recordStats();
+	}
+}
@@ -0,0 +1,9 @@
+package dev.api.auth.authservice.common.cache;
+
+public class CacheNames {
+	public static final String USERS_BY_ID = "usersById";
+	public static final String USERS_BY_ID_INCLUDING_DELETED = "usersByIdIncludingDeleted";
+	public static final String USERS_BY_EMAIL = "usersByEmail";
+	public static final String USERS_BY_USERNAME = "usersByUsername";
+	public static final String USER_LISTS = "userLists";
+}
@@ -0,0 +1,20 @@
+package dev.api.auth.authservice.common.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheSpecProperties {
+	/** Caffeine spec used for caches without an entry in specs. */
+	private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m";
+	/** Caffeine spec per cache name, e.g. {@code maximumSize=10000,expireAfterWrite=5m}. */
+	private Map<String, String> specs = new HashMap<>();
+}
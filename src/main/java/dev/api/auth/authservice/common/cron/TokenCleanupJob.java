@@ -0,0 +1,147 @@
+package dev.api.auth.authservice.common.cron;
+
+import dev.api.auth.authservice.common.lock.SchedulerLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired and long revoked refresh tokens, expired password reset tokens and expired access token revocations.
+ * Runs often, on one replica at a time (see {@link SchedulerLock}), and deletes in small batches:
+ * each batch is a single short statement, batches are paced by {@code cleanup.tokens.pause},
+ * and a run stops after {@code cleanup.tokens.max-run-time}, continuing in the next run.
+ * <p>
+ * Batches walk an index in key order and remember the last deleted key, so a batch never rescans
+ * the dead index entries earlier batches left behind before vacuum reclaims them.
+ */
+@Component
+public class TokenCleanupJob {
+
+	private static final Logger log = LoggerFactory.getLogger(TokenCleanupJob.class);
+	private static final String LOCK_NAME = "token-cleanup";
+
+	/**
+	 * Deletes one batch and returns the batch size together with its last key, ordered as in the index.
+	 * Arguments: %1$s table, %2$s key column, %3$s extra condition.
+	 */
+	private static final String DELETE_BATCH = """
+			WITH batch AS (
+			    SELECT id FROM %1$s
+			    WHERE %3$s %2$s < ? AND (%2$s, id) > (?, ?)
+			    ORDER BY %2$s, id
+			    LIMIT ?
+			), deleted AS (
+			    DELETE FROM %1$s t USING batch b
+			    WHERE t.id = b.id
+			    RETURNING t.%2$s AS k, t.id
+			)
+			SELECT (SELECT count(*) FROM deleted) AS n, k, id
+			FROM deleted
+			ORDER BY k DESC, id DESC
+			LIMIT 1
+			""";
+	private static final String DELETE_EXPIRED_REFRESH = DELETE_BATCH.formatted("auth_refresh_tokens", "expires_at", "");
+	private static final String DELETE_REVOKED_REFRESH = DELETE_BATCH.formatted("auth_refresh_tokens", "revoked_at", "revoked AND");
+	private static final String DELETE_EXPIRED_RESET = DELETE_BATCH.formatted("password_reset_tokens", "expires_at", "");
+	private static final String DELETE_EXPIRED_REVOCATIONS = DELETE_BATCH.formatted("revoked_access_tokens", "expires_at", "");
+
+	private static final Timestamp MIN_TIME = Timestamp.from(Instant.parse("0001-01-01T00:00:00Z"));
+	private static final UUID MIN_UUID = new UUID(0, 0);
+
+	private record Batch(long size, Timestamp time, Object id) {}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final SchedulerLock schedulerLock;
+	private final TokenCleanupProperties props;
+	private final MeterRegistry meterRegistry;
+	private final Timer runTimer;
+
+	public TokenCleanupJob(JdbcTemplate jdbcTemplate,
+						   SchedulerLock schedulerLock,
+						   TokenCleanupProperties props,
+						   MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.schedulerLock = schedulerLock;
+		this.props = props;
+		this.meterRegistry = meterRegistry;
+		this.runTimer = Timer.builder("token.cleanup.duration").register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${cleanup.tokens.interval:PT5M}", initialDelayString = "${cleanup.tokens.interval:PT5M}")
+	public void run() {
+		if (!props.isEnabled() || !schedulerLock.tryAcquire(LOCK_NAME, props.getLockLease())) return;
+		long start = System.nanoTime();
+		try {
+			Instant now = Instant.now();
+			Instant deadline = now.plus(props.getMaxRunTime());
+			long expired = purge("auth_refresh_tokens", "expired", DELETE_EXPIRED_REFRESH, now, MIN_UUID, deadline);
+			long revoked = purge("auth_refresh_tokens", "revoked", DELETE_REVOKED_REFRESH,
+					now.minus(props.getRevokedRetention()), MIN_UUID, deadline);
+			long reset = purge("password_reset_tokens", "expired", DELETE_EXPIRED_RESET, now, 0L, deadline);
+			long revocations = purge("revoked_access_tokens", "expired", DELETE_EXPIRED_REVOCATIONS, now, MIN_UUID, deadline);
+			Duration took = Duration.ofNanos(System.nanoTime() - start);
+			if (expired + revoked + reset + revocations > 0) {
+				log.info("Token cleanup deleted {} expired and {} revoked refresh tokens, {} reset tokens and {} access token revocations in {} ms",
+						expired, revoked, reset, revocations, took.toMillis());
+			}
+		} catch (RuntimeException e) {
+			log.error("Token cleanup run failed", e);
+		} finally {
+			runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			schedulerLock.release(LOCK_NAME);
+		}
+	}
+
+	/**
+	 * Deletes batches of rows older than the cutoff until none are left or the deadline passes.
+	 *
+	 * @return the number of deleted rows
+	 */
+	private long purge(String table, String reason, String sql, Instant cutoff, Object minId, Instant deadline) {
+		Counter deleted = Counter.builder("token.cleanup.deleted")
+				.tag("table", table)
+				.tag("reason", reason)
+				.register(meterRegistry);
+		Timestamp before = Timestamp.from(cutoff);
+		Timestamp lastTime = MIN_TIME;
+		Object lastId = minId;
+		long total = 0;
+		while (Instant.now().isBefore(deadline)) {
+			List<Batch> result = jdbcTemplate.query(sql,
+					(rs, i) -> new Batch(rs.getLong("n"), rs.getTimestamp("k"), rs.getObject("id")),
+					before, lastTime, lastId, props.getBatchSize());
+			if (result.isEmpty()) break;
+			Batch batch = result.getFirst();
+			total += batch.size();
+			deleted.increment(batch.size());
+			if (batch.size() < props.getBatchSize()) break;
+			lastTime = batch.time();
+			lastId = batch.id();
+			if (!pause()) break;
+		}
+		return total;
+	}
+
+	private boolean pause() {
+		if (props.getPause().isZero()) return true;
+		try {
+			Thread.sleep(props.getPause());
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
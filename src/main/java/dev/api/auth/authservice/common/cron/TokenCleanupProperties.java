@@ -0,0 +1,29 @@
+package dev.api.auth.authservice.common.cron;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "cleanup.tokens")
+public class TokenCleanupProperties {
+	/** Whether this instance runs the token cleanup. */
+	private boolean enabled = true;
+	/** Delay between two cleanup runs. */
+	private Duration interval = Duration.ofMinutes(5);
+	/** Rows deleted per statement; every batch is its own short transaction. */
+	private Integer batchSize = 1000;
+	/** Pause between two batches, leaving I/O and vacuum room for regular traffic. */
+	private Duration pause = Duration.ofMillis(50);
+	/** Longest a run keeps deleting before yielding until the next run. */
+	private Duration maxRunTime = Duration.ofSeconds(30);
+	/** How long refresh tokens are kept after their revocation, so replays are still recognised. */
+	private Duration revokedRetention = Duration.ofDays(7);
+	/** Lease of the cleanup lock; must exceed maxRunTime plus one batch. */
+	private Duration lockLease = Duration.ofMinutes(2);
+}
@@ -9,5 +9,6 @@ public enum ApiEnvelopeResponseCode {
 	CONFLICT,
 	VALIDATION_ERROR,
 	INTERNAL_ERROR,
-	TOO_MANY_REQUESTS
+	TOO_MANY_REQUESTS,
+	SERVICE_UNAVAILABLE
 }
@@ -0,0 +1,42 @@
+package dev.api.auth.authservice.common.entities;
+
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Output formats supported by streaming export endpoints.
+ */
+public enum ExportFormat {
+	NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+	CSV(new MediaType("text", "csv"), "csv");
+
+	private final MediaType mediaType;
+	private final String extension;
+
+	ExportFormat(MediaType mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	public MediaType getMediaType() { return mediaType; }
+	public String getExtension() { return extension; }
+
+	/**
+	 * Parses a format name case-insensitively.
+	 *
+	 * @param value the requested format, null for NDJSON
+	 * @return the format
+	 */
+	public static ExportFormat from(String value) {
+		if (value == null || value.isBlank()) {
+			return NDJSON;
+		}
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw ApiException.badRequest("Unsupported export format: " + value);
+		}
+	}
+}
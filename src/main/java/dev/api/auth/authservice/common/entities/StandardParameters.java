@@ -5,6 +5,7 @@ public class StandardParameters {
 	public static final String API_KEY_USER = "API_KEY_USER";
 	public static final String DEFAULT_PAGE_NUMBER = "0";
 	public static final String DEFAULT_PAGE_SIZE = "10";
+	public static final int MAX_PAGE_SIZE = 500;
 	public static final String DEFAULT_SORT_BY = "id";
 	public static final String DEFAULT_SORT_DIRECTION = "asc";
 }
@@ -0,0 +1,12 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import java.util.List;
+
+/**
+ * A slice of results fetched by keyset pagination.
+ *
+ * @param items      the rows of this slice
+ * @param nextCursor opaque cursor to pass as {@code after} for the next slice, null on the last one
+ * @param hasNext    whether more rows follow
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasNext) {}
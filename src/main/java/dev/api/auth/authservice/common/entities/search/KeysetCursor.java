@@ -0,0 +1,145 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.entities.StandardParameters;
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque keyset pagination cursor. It carries the sort it was issued for and the
+ * (sort key, id) values of the last row returned, so the next slice is fetched with
+ * a seek predicate instead of an offset.
+ *
+ * @param sortBy    the sort attribute
+ * @param direction the sort direction, also used for the id tiebreaker
+ * @param keys      the key values of the last row, empty for the first slice
+ */
+public record KeysetCursor(String sortBy, Sort.Direction direction, Map<String, Object> keys) {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final DefaultConversionService CONVERSION = new DefaultConversionService();
+
+	private record Payload(String s, String d, Map<String, Object> k) {}
+
+	/**
+	 * Cursor for the first slice.
+	 *
+	 * @param sortBy     the sort attribute, defaults to id
+	 * @param direction  ASC or DESC, defaults to ASC
+	 * @param fieldTypes sortable attributes and their types
+	 * @return the cursor
+	 */
+	public static KeysetCursor first(String sortBy, String direction, Map<String, Class<?>> fieldTypes) {
+		String field = sortBy == null || sortBy.isBlank() ? StandardParameters.DEFAULT_SORT_BY : sortBy;
+		if (!fieldTypes.containsKey(field)) {
+			throw ApiException.badRequest("Unsupported sort field: " + field);
+		}
+		return new KeysetCursor(field, parseDirection(direction), Map.of());
+	}
+
+	/**
+	 * Decodes a cursor previously returned by {@link #encode()}.
+	 *
+	 * @param token      the opaque cursor
+	 * @param fieldTypes sortable attributes and their types
+	 * @return the cursor
+	 */
+	public static KeysetCursor decode(String token, Map<String, Class<?>> fieldTypes) {
+		Payload payload;
+		try {
+			payload = MAPPER.readValue(Base64.getUrlDecoder().decode(token), Payload.class);
+		} catch (IllegalArgumentException | IOException e) {
+			throw ApiException.badRequest("Invalid cursor");
+		}
+		if (payload.s() == null || !fieldTypes.containsKey(payload.s()) || payload.k() == null
+				|| !payload.k().keySet().equals(keyNames(payload.s()))) {
+			throw ApiException.badRequest("Invalid cursor");
+		}
+		Map<String, Object> keys = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> key : payload.k().entrySet()) {
+			Class<?> type = fieldTypes.get(key.getKey());
+			if (type == null || key.getValue() == null) {
+				throw ApiException.badRequest("Invalid cursor");
+			}
+			try {
+				keys.put(key.getKey(), CONVERSION.convert(key.getValue(), type));
+			} catch (ConversionException e) {
+				throw ApiException.badRequest("Invalid cursor");
+			}
+		}
+		return new KeysetCursor(payload.s(), parseDirection(payload.d()), keys);
+	}
+
+	/**
+	 * Sort on the cursor attribute followed by id in the same direction, so one composite index can serve the seek.
+	 *
+	 * @return the sort
+	 */
+	public Sort sort() {
+		Sort sort = Sort.by(direction, sortBy);
+		return sortBy.equals(StandardParameters.DEFAULT_SORT_BY)
+				? sort
+				: sort.and(Sort.by(direction, StandardParameters.DEFAULT_SORT_BY));
+	}
+
+	/**
+	 * @return the scroll position to resume from
+	 */
+	public ScrollPosition position() {
+		return keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(keys);
+	}
+
+	/**
+	 * Cursor positioned after the given row position.
+	 *
+	 * @param position position of the last row returned
+	 * @return the next cursor
+	 */
+	public KeysetCursor next(ScrollPosition position) {
+		return new KeysetCursor(sortBy, direction, ((KeysetScrollPosition) position).getKeys());
+	}
+
+	/**
+	 * @return the opaque, URL safe representation of this cursor
+	 */
+	public String encode() {
+		try {
+			byte[] json = MAPPER.writeValueAsBytes(new Payload(sortBy, direction.name(), keys));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not encode cursor", e);
+		}
+	}
+
+	/**
+	 * Key attributes a cursor sorted by the given attribute must carry: the attribute and the id tiebreaker.
+	 */
+	private static Set<String> keyNames(String sortBy) {
+		return sortBy.equals(StandardParameters.DEFAULT_SORT_BY)
+				? Set.of(sortBy)
+				: Set.of(sortBy, StandardParameters.DEFAULT_SORT_BY);
+	}
+
+	private static Sort.Direction parseDirection(String direction) {
+		if (direction == null || direction.isBlank()) {
+			return Sort.Direction.ASC;
+		}
+		return switch (direction.trim().toUpperCase(Locale.ROOT)) {
+			case SqlParameters.SqlOrder.ASC -> Sort.Direction.ASC;
+			case SqlParameters.SqlOrder.DESC -> Sort.Direction.DESC;
+			default -> throw ApiException.badRequest("Unsupported sort direction: " + direction);
+		};
+	}
+}
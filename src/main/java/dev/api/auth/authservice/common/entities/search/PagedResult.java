@@ -0,0 +1,13 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import java.util.List;
+
+/**
+ * A page of results together with the total number of matching rows.
+ *
+ * @param items    the rows of the requested page
+ * @param page     the 1-based page number
+ * @param pageSize the page size
+ * @param total    the number of rows matching the filters
+ */
+public record PagedResult<T>(List<T> items, int page, int pageSize, long total) {}
@@ -1,10 +1,22 @@
 package dev.api.auth.authservice.common.entities.search;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class SearchCriteria {
 
-	public record Filter(String field, SqlParameters.SqlOperator operator, Object value) {}
+	/**
+	 * @param field    entity field to filter on
+	 * @param operator one of {@link SqlParameters.SqlOperator}
+	 * @param value    operand; a list for IN, NOT IN and BETWEEN, a list of nested filters for AND and OR
+	 */
+	public record Filter(String field, String operator, Object value) {}
 
-	public record Sorter(String field, SqlParameters.SqlOrder operator) {}
+	/**
+	 * @param field    entity field to sort on
+	 * @param operator one of {@link SqlParameters.SqlOrder}
+	 */
+	public record Sorter(String field, String operator) {}
 
 	private final Filter[] filters;
 	private final Sorter[] sorters;
@@ -19,7 +31,11 @@ public class SearchCriteria {
 		this.pageSize = 10;
 	}
 
-	public SearchCriteria(Filter[] filters, Sorter[] sorters, Integer page, Integer pageSize) {
+	@JsonCreator
+	public SearchCriteria(@JsonProperty("filters") Filter[] filters,
+						  @JsonProperty("sorters") Sorter[] sorters,
+						  @JsonProperty("page") Integer page,
+						  @JsonProperty("pageSize") Integer pageSize) {
 		super();
 		this.filters = filters;
 		this.sorters = sorters;
@@ -0,0 +1,31 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+
+/**
+ * Binds a JSON encoded {@code searchCriteria} request parameter to {@link SearchCriteria}.
+ */
+public class SearchCriteriaConverter implements Converter<String, SearchCriteria> {
+
+	private final ObjectMapper objectMapper;
+
+	public SearchCriteriaConverter(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public SearchCriteria convert(@NonNull String source) {
+		if (source.isBlank()) {
+			return new SearchCriteria();
+		}
+		try {
+			return objectMapper.readValue(source, SearchCriteria.class);
+		} catch (JsonProcessingException e) {
+			throw ApiException.badRequest("Invalid search criteria: " + e.getOriginalMessage());
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import dev.api.auth.authservice.common.entities.StandardParameters;
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates {@link SearchCriteria} into a JPA {@link Specification} and a {@link Pageable},
+ * so filtering, sorting, paging and counting run in the database.
+ * Only whitelisted entity attributes may be filtered or sorted on.
+ */
+public final class SearchSpecifications {
+
+	private static final DefaultConversionService CONVERSION = new DefaultConversionService();
+	private static final char LIKE_ESCAPE = '\\';
+
+	private SearchSpecifications() {
+	}
+
+	/**
+	 * Builds a specification matching every filter (filters are AND-ed).
+	 *
+	 * @param filters       the requested filters, may be null
+	 * @param allowedFields entity attributes that may be filtered on
+	 * @return the specification
+	 */
+	public static <T> Specification<T> from(SearchCriteria.Filter[] filters, Set<String> allowedFields) {
+		if (filters == null || filters.length == 0) {
+			return (root, query, cb) -> cb.conjunction();
+		}
+		List<SearchCriteria.Filter> list = List.of(filters);
+		return (root, query, cb) -> cb.and(predicates(list, root, cb, allowedFields));
+	}
+
+	/**
+	 * Builds the page request for the criteria. Pages are 1-based; the entity id is always
+	 * appended as a tiebreaker so ordering is stable across pages.
+	 *
+	 * @param criteria      the search criteria
+	 * @param allowedFields entity attributes that may be sorted on
+	 * @return the page request
+	 */
+	public static Pageable pageable(SearchCriteria criteria, Set<String> allowedFields) {
+		int page = criteria.getPage() != null && criteria.getPage() > 0 ? criteria.getPage() - 1 : 0;
+		return PageRequest.of(page, pageSize(criteria.getPageSize()), sort(criteria.getSorters(), allowedFields));
+	}
+
+	/**
+	 * Applies the default and the upper bound to a requested page size.
+	 *
+	 * @param requested the requested size, may be null
+	 * @return the effective page size
+	 */
+	public static int pageSize(Integer requested) {
+		return requested != null && requested > 0
+				? Math.min(requested, StandardParameters.MAX_PAGE_SIZE)
+				: Integer.parseInt(StandardParameters.DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * Builds the sort for the sorters, followed by the default sort field as a tiebreaker.
+	 *
+	 * @param sorters       the requested sorters, may be null
+	 * @param allowedFields entity attributes that may be sorted on
+	 * @return the sort
+	 */
+	public static Sort sort(SearchCriteria.Sorter[] sorters, Set<String> allowedFields) {
+		List<Sort.Order> orders = new ArrayList<>();
+		boolean hasTiebreaker = false;
+		if (sorters != null) {
+			for (SearchCriteria.Sorter sorter : sorters) {
+				String field = checkField(sorter.field(), allowedFields);
+				String direction = sorter.operator() == null ? SqlParameters.SqlOrder.ASC : sorter.operator().trim().toUpperCase(Locale.ROOT);
+				orders.add(switch (direction) {
+					case SqlParameters.SqlOrder.ASC -> Sort.Order.asc(field);
+					case SqlParameters.SqlOrder.DESC -> Sort.Order.desc(field);
+					default -> throw ApiException.badRequest("Unsupported sort direction: " + sorter.operator());
+				});
+				hasTiebreaker |= field.equals(StandardParameters.DEFAULT_SORT_BY);
+			}
+		}
+		if (!hasTiebreaker) {
+			orders.add(Sort.Order.asc(StandardParameters.DEFAULT_SORT_BY));
+		}
+		return Sort.by(orders);
+	}
+
+	private static Predicate[] predicates(List<SearchCriteria.Filter> filters, Root<?> root, CriteriaBuilder cb, Set<String> allowedFields) {
+		Predicate[] predicates = new Predicate[filters.size()];
+		for (int i = 0; i < filters.size(); i++) {
+			predicates[i] = predicate(filters.get(i), root, cb, allowedFields);
+		}
+		return predicates;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Predicate predicate(SearchCriteria.Filter filter, Root<?> root, CriteriaBuilder cb, Set<String> allowedFields) {
+		if (filter.operator() == null) {
+			throw ApiException.badRequest("Missing operator for filter on " + filter.field());
+		}
+		String operator = filter.operator().trim().toUpperCase(Locale.ROOT);
+		switch (operator) {
+			case SqlParameters.SqlOperator.AND:
+				return cb.and(predicates(nested(filter), root, cb, allowedFields));
+			case SqlParameters.SqlOperator.OR:
+				return cb.or(predicates(nested(filter), root, cb, allowedFields));
+			default:
+				break;
+		}
+
+		Path path = root.get(checkField(filter.field(), allowedFields));
+		Class<?> type = path.getJavaType();
+		return switch (operator) {
+			case SqlParameters.SqlOperator.EQUALS -> cb.equal(path, convert(filter.value(), type));
+			case SqlParameters.SqlOperator.NOT_EQUALS -> cb.notEqual(path, convert(filter.value(), type));
+			case SqlParameters.SqlOperator.GREATER_THAN -> cb.greaterThan(path, (Comparable) convert(filter.value(), type));
+			case SqlParameters.SqlOperator.LESS_THAN -> cb.lessThan(path, (Comparable) convert(filter.value(), type));
+			case SqlParameters.SqlOperator.GREATER_THAN_OR_EQUALS -> cb.greaterThanOrEqualTo(path, (Comparable) convert(filter.value(), type));
+			case SqlParameters.SqlOperator.LESS_THAN_OR_EQUALS -> cb.lessThanOrEqualTo(path, (Comparable) convert(filter.value(), type));
+			case SqlParameters.SqlOperator.LIKE -> cb.like((Expression<String>) path.as(String.class), likePattern(filter.value()), LIKE_ESCAPE);
+			case SqlParameters.SqlOperator.IN -> path.in(convertAll(filter, type));
+			case SqlParameters.SqlOperator.NOT_IN -> cb.not(path.in(convertAll(filter, type)));
+			case SqlParameters.SqlOperator.IS_NULL -> cb.isNull(path);
+			case SqlParameters.SqlOperator.IS_NOT_NULL -> cb.isNotNull(path);
+			case SqlParameters.SqlOperator.BETWEEN -> {
+				List<Object> bounds = convertAll(filter, type);
+				if (bounds.size() != 2) {
+					throw ApiException.badRequest("BETWEEN on " + filter.field() + " expects exactly two values");
+				}
+				yield cb.between(path, (Comparable) bounds.get(0), (Comparable) bounds.get(1));
+			}
+			default -> throw ApiException.badRequest("Unsupported filter operator: " + filter.operator());
+		};
+	}
+
+	private static String checkField(String field, Set<String> allowedFields) {
+		if (field == null || !allowedFields.contains(field)) {
+			throw ApiException.badRequest("Unsupported field: " + field);
+		}
+		return field;
+	}
+
+	/**
+	 * LIKE matches values containing the given text literally: wildcards in it are escaped with {@link #LIKE_ESCAPE}.
+	 */
+	private static String likePattern(Object value) {
+		if (value == null) {
+			throw ApiException.badRequest("LIKE expects a value");
+		}
+		String text = value.toString();
+		StringBuilder pattern = new StringBuilder(text.length() + 2).append('%');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == LIKE_ESCAPE || c == '%' || c == '_') pattern.append(LIKE_ESCAPE);
+			pattern.append(c);
+		}
+		return pattern.append('%').toString();
+	}
+
+	private static Object convert(Object value, Class<?> type) {
+		if (value == null) {
+			throw ApiException.badRequest("Missing filter value");
+		}
+		try {
+			return CONVERSION.convert(value, type);
+		} catch (ConversionException e) {
+			throw ApiException.badRequest("Invalid value '" + value + "' for type " + type.getSimpleName());
+		}
+	}
+
+	private static List<Object> convertAll(SearchCriteria.Filter filter, Class<?> type) {
+		if (!(filter.value() instanceof Collection<?> values) || values.isEmpty()) {
+			throw ApiException.badRequest(filter.operator() + " on " + filter.field() + " expects a non-empty list of values");
+		}
+		List<Object> converted = new ArrayList<>(values.size());
+		for (Object value : values) {
+			converted.add(convert(value, type));
+		}
+		return converted;
+	}
+
+	/**
+	 * Nested filters arrive from JSON as maps with the {@link SearchCriteria.Filter} members.
+	 */
+	private static List<SearchCriteria.Filter> nested(SearchCriteria.Filter filter) {
+		if (!(filter.value() instanceof Collection<?> values) || values.isEmpty()) {
+			throw ApiException.badRequest(filter.operator() + " expects a non-empty list of filters");
+		}
+		List<SearchCriteria.Filter> nested = new ArrayList<>(values.size());
+		for (Object value : values) {
+			if (value instanceof SearchCriteria.Filter f) {
+				nested.add(f);
+			} else if (value instanceof Map<?, ?> map) {
+				nested.add(new SearchCriteria.Filter(
+						map.get("field") != null ? map.get("field").toString() : null,
+						map.get("operator") != null ? map.get("operator").toString() : null,
+						map.get("value")));
+			} else {
+				throw ApiException.badRequest("Invalid nested filter: " + value);
+			}
+		}
+		return nested;
+	}
+}
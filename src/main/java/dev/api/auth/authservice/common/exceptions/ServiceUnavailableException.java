@@ -0,0 +1,17 @@
+package dev.api.auth.authservice.common.exceptions;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+	private final Duration retryAfter;
+
+	public ServiceUnavailableException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+}
@@ -0,0 +1,133 @@
+package dev.api.auth.authservice.common.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response wrapper that passes every byte straight through to the client while counting them.
+ * Optionally keeps a copy of the first {@code captureLimit} bytes for logging; nothing beyond
+ * the cap is ever buffered, so memory use does not depend on the response size.
+ */
+public class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+	private final int captureLimit;
+	private final ByteArrayOutputStream capture;
+	private long bytesWritten;
+	private ServletOutputStream outputStream;
+	private PrintWriter writer;
+
+	/**
+	 * @param response     the response to wrap
+	 * @param captureLimit bytes of the body to keep for logging, 0 to only count
+	 */
+	public CountingResponseWrapper(HttpServletResponse response, int captureLimit) {
+		super(response);
+		this.captureLimit = Math.max(0, captureLimit);
+		this.capture = captureLimit > 0 ? new ByteArrayOutputStream(Math.min(captureLimit, 1024)) : null;
+	}
+
+	/**
+	 * @return the number of body bytes written so far
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * @return the captured start of the body, or null when capture is off or nothing was written
+	 */
+	public String getCapturedBody() {
+		if (capture == null || capture.size() == 0) return null;
+		String encoding = getCharacterEncoding();
+		Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+		return capture.toString(charset);
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (outputStream == null) {
+			outputStream = new CountingOutputStream(super.getOutputStream());
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			String encoding = getCharacterEncoding();
+			Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+			writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+		}
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) writer.flush();
+		super.flushBuffer();
+	}
+
+	/**
+	 * Pushes any characters still held by the writer to the client.
+	 */
+	public void flush() {
+		if (writer != null) writer.flush();
+	}
+
+	private void count(byte[] bytes, int offset, int length) {
+		bytesWritten += length;
+		if (capture != null && capture.size() < captureLimit) {
+			capture.write(bytes, offset, Math.min(length, captureLimit - capture.size()));
+		}
+	}
+
+	private final class CountingOutputStream extends ServletOutputStream {
+		private final ServletOutputStream delegate;
+
+		private CountingOutputStream(ServletOutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			bytesWritten++;
+			if (capture != null && capture.size() < captureLimit) capture.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			count(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener listener) {
+			delegate.setWriteListener(listener);
+		}
+	}
+}
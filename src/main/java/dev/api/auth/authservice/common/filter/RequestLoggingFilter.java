@@ -1,32 +1,45 @@
 package dev.api.auth.authservice.common.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.api.auth.authservice.common.audit.AuditContext;
 import dev.api.auth.authservice.common.entities.StandardParameters;
+import dev.api.auth.authservice.common.filter.accesslog.AccessLog;
+import dev.api.auth.authservice.common.filter.accesslog.AccessLogProperties;
 import jakarta.annotation.Nonnull;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Filter for logging web requests and responses.
+ * Responses pass straight through a byte counting wrapper; bodies are only captured, up to
+ * {@code logging.access.capture-max-bytes}, on routes listed in {@code logging.access.capture-paths}.
+ * Entries are handed to {@link AccessLog}, which serializes and writes them off the request thread.
+ * Asynchronous responses, such as streamed exports, are recorded when the async exchange completes,
+ * so their status, duration and size cover the whole body.
  */
 public class RequestLoggingFilter extends OncePerRequestFilter {
-	private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
-	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final AccessLog accessLog;
+	private final AccessLogProperties props;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	public RequestLoggingFilter(AccessLog accessLog, AccessLogProperties props) {
+		this.accessLog = accessLog;
+		this.props = props;
+	}
 
 	/**
 	 * Logs request and response details including method, URI, status, lengths, and processing time.
@@ -43,44 +56,92 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 									FilterChain chain)
 			throws ServletException, IOException {
 
-		String requestId = UUID.randomUUID().toString();
+		String requestId = requestId();
 		MDC.put("requestId", requestId);
-		long start = System.currentTimeMillis();
+		long start = System.nanoTime();
 		String actor = AuditContext.getActor().orElse(StandardParameters.SYSTEM_USER);
 		MDC.put("actor", actor);
 
-		ContentCachingRequestWrapper req = new ContentCachingRequestWrapper(request);
-		ContentCachingResponseWrapper res = new ContentCachingResponseWrapper(response);
+		boolean capture = shouldCapture(request);
+		HttpServletRequest req = capture
+				? new ContentCachingRequestWrapper(request, props.getCaptureMaxBytes())
+				: request;
+		CountingResponseWrapper res = new CountingResponseWrapper(response, capture ? props.getCaptureMaxBytes() : 0);
 
 		try {
 			response.addHeader("X-Request-Id", requestId);
 			chain.doFilter(req, res);
 		} finally {
-			long duration = System.currentTimeMillis() - start;
-
-			Map<String, Object> logEntry = new HashMap<>();
-			logEntry.put("timestamp", Instant.now().toString());
-			logEntry.put("requestId", requestId);
-			logEntry.put("method", request.getMethod());
-			logEntry.put("uri", request.getRequestURI());
-			logEntry.put("status", response.getStatus());
-			logEntry.put("durationMs", duration);
-			logEntry.put("clientIp", request.getRemoteAddr());
-			logEntry.put("userAgent", request.getHeader("User-Agent"));
-			logEntry.put("actor", actor);
-			String queryString = request.getQueryString();
-			logEntry.put("queryString", queryString);
-			Map<String, String[]> parameterMap = request.getParameterMap();
-			Map<String, Object> params = new HashMap<>();
-			parameterMap.forEach((k, v) -> params.put(k, v.length == 1 ? v[0] : v));
-			logEntry.put("parameters", params);
-
-			String jsonLog = objectMapper.writeValueAsString(logEntry);
-			log.info(jsonLog);
-
-			res.copyBodyToResponse();
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new AsyncListener() {
+					@Override
+					public void onComplete(AsyncEvent event) {
+						record(request, req, response, res, requestId, actor, start);
+					}
+
+					@Override
+					public void onTimeout(AsyncEvent event) {
+						// onComplete follows
+					}
+
+					@Override
+					public void onError(AsyncEvent event) {
+						// onComplete follows
+					}
+
+					@Override
+					public void onStartAsync(AsyncEvent event) {
+						// still the same exchange
+					}
+				});
+			} else {
+				record(request, req, response, res, requestId, actor, start);
+			}
 
 			MDC.clear();
 		}
 	}
+
+	private void record(HttpServletRequest request, HttpServletRequest req, HttpServletResponse response,
+						CountingResponseWrapper res, String requestId, String actor, long start) {
+		res.flush();
+
+		accessLog.record(
+				request,
+				requestId,
+				actor,
+				response.getStatus(),
+				(System.nanoTime() - start) / 1000,
+				res.getBytesWritten(),
+				req instanceof ContentCachingRequestWrapper cachingRequest ? requestBody(cachingRequest) : null,
+				res.getCapturedBody()
+		);
+	}
+
+	private boolean shouldCapture(HttpServletRequest request) {
+		if (props.getCapturePaths().isEmpty() || props.getCaptureMaxBytes() <= 0) return false;
+		String path = request.getRequestURI();
+		for (String pattern : props.getCapturePaths()) {
+			if (pathMatcher.match(pattern, path)) return true;
+		}
+		return false;
+	}
+
+	private static String requestBody(ContentCachingRequestWrapper request) {
+		byte[] body = request.getContentAsByteArray();
+		if (body.length == 0) return null;
+		String encoding = request.getCharacterEncoding();
+		return new String(body, encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Random (version 4) UUID from the thread-local generator; request ids need uniqueness, not
+	 * unpredictability, so the contended SecureRandom behind {@link UUID#randomUUID()} is avoided.
+	 */
+	private static String requestId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long most = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+		long least = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+		return new UUID(most, least).toString();
+	}
 }
@@ -0,0 +1,181 @@
+package dev.api.auth.authservice.common.filter.accesslog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured access log written off the request thread.
+ * Request threads copy a few references into a preallocated slot of a lock-free ring buffer;
+ * a single writer thread serializes the records to JSON and hands them to the
+ * {@code access} logger. When the buffer is full the record is dropped and counted.
+ * <p>
+ * The writer starts before and stops after the web server, including its graceful shutdown,
+ * so requests finishing during the drain are still logged.
+ */
+@Component
+public class AccessLog implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger("access");
+	private static final Logger internal = LoggerFactory.getLogger(AccessLog.class);
+	/** Below the graceful shutdown and the web server start/stop phases, which sits 1024 lower. */
+	private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+	private final AccessLogProperties props;
+	private final AccessLogRingBuffer buffer;
+	private final Counter dropped;
+	private final Counter written;
+	private final JsonFactory jsonFactory = new JsonFactory();
+	private final StringWriter line = new StringWriter(512);
+	private volatile boolean running;
+	private Thread writer;
+
+	public AccessLog(AccessLogProperties props, MeterRegistry meterRegistry) {
+		this.props = props;
+		this.buffer = new AccessLogRingBuffer(props.getBufferSize());
+		this.dropped = Counter.builder("http.access_log.dropped")
+				.description("Access log records dropped because the buffer was full")
+				.register(meterRegistry);
+		this.written = Counter.builder("http.access_log.written").register(meterRegistry);
+	}
+
+	/**
+	 * Records a finished request, subject to sampling.
+	 *
+	 * @param request        the request
+	 * @param requestId      the request id
+	 * @param actor          the authenticated actor
+	 * @param status         the response status
+	 * @param durationMicros the processing time
+	 * @param responseBytes  the number of body bytes sent
+	 * @param requestBody    the captured start of the request body, may be null
+	 * @param responseBody   the captured start of the response body, may be null
+	 */
+	public void record(HttpServletRequest request, String requestId, String actor, int status,
+					   long durationMicros, long responseBytes, String requestBody, String responseBody) {
+		if (!running || !sampled(status, durationMicros)) return;
+		long position = buffer.claim();
+		if (position < 0) {
+			dropped.increment();
+			return;
+		}
+		AccessLogRecord record = buffer.slot(position);
+		record.timestampMillis = System.currentTimeMillis();
+		record.durationMicros = durationMicros;
+		record.requestBytes = request.getContentLengthLong();
+		record.responseBytes = responseBytes;
+		record.status = status;
+		record.requestId = requestId;
+		record.method = request.getMethod();
+		record.uri = request.getRequestURI();
+		record.queryString = request.getQueryString();
+		record.clientIp = request.getRemoteAddr();
+		record.userAgent = request.getHeader("User-Agent");
+		record.actor = actor;
+		record.requestBody = requestBody;
+		record.responseBody = responseBody;
+		buffer.publish(position);
+	}
+
+	private boolean sampled(int status, long durationMicros) {
+		if (status >= props.getErrorStatus()) return true;
+		if (durationMicros >= props.getSlowThreshold().toNanos() / 1000) return true;
+		double rate = props.getSampleRate();
+		return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+	}
+
+	private void drain() {
+		long idleNanos = props.getIdleWait().toNanos();
+		while (running) {
+			if (writeAvailable() == 0) {
+				LockSupport.parkNanos(idleNanos);
+			}
+		}
+		writeAvailable();
+	}
+
+	private int writeAvailable() {
+		int count = 0;
+		long position;
+		while ((position = buffer.poll()) >= 0) {
+			AccessLogRecord record = buffer.slot(position);
+			try {
+				log.info(toJson(record));
+			} catch (IOException | RuntimeException e) {
+				internal.warn("Failed to write access log record", e);
+			}
+			record.clear();
+			buffer.release(position);
+			count++;
+		}
+		if (count > 0) written.increment(count);
+		return count;
+	}
+
+	private String toJson(AccessLogRecord record) throws IOException {
+		line.getBuffer().setLength(0);
+		try (JsonGenerator json = jsonFactory.createGenerator(line)) {
+			json.writeStartObject();
+			json.writeStringField("timestamp", Instant.ofEpochMilli(record.timestampMillis).toString());
+			json.writeStringField("requestId", record.requestId);
+			json.writeStringField("method", record.method);
+			json.writeStringField("uri", record.uri);
+			json.writeNumberField("status", record.status);
+			json.writeNumberField("durationMs", record.durationMicros / 1000.0);
+			json.writeStringField("clientIp", record.clientIp);
+			json.writeStringField("userAgent", record.userAgent);
+			json.writeStringField("actor", record.actor);
+			json.writeStringField("queryString", record.queryString);
+			json.writeNumberField("requestBytes", record.requestBytes);
+			json.writeNumberField("responseBytes", record.responseBytes);
+			if (record.requestBody != null) json.writeStringField("requestBody", record.requestBody);
+			if (record.responseBody != null) json.writeStringField("responseBody", record.responseBody);
+			json.writeEndObject();
+		}
+		return line.toString();
+	}
+
+	@Override
+	public void start() {
+		if (!props.isEnabled()) return;
+		running = true;
+		writer = Thread.ofPlatform().name("access-log-writer").daemon().unstarted(this::drain);
+		writer.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		if (writer == null) return;
+		LockSupport.unpark(writer);
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+}
@@ -0,0 +1,33 @@
+package dev.api.auth.authservice.common.filter.accesslog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "logging.access")
+public class AccessLogProperties {
+	/** Whether requests are written to the access log. */
+	private boolean enabled = true;
+	/** Ring buffer slots, rounded up to a power of two. Records are dropped when it is full. */
+	private Integer bufferSize = 8192;
+	/** Fraction of fast, successful requests that are logged, between 0 and 1. */
+	private double sampleRate = 1.0;
+	/** Requests at least this slow are always logged. */
+	private Duration slowThreshold = Duration.ofSeconds(1);
+	/** Statuses from this value up are always logged. */
+	private Integer errorStatus = 400;
+	/** Route patterns whose request and response bodies are captured, e.g. {@code /auth/**}. Empty captures none. */
+	private List<String> capturePaths = new ArrayList<>();
+	/** Bytes of each body kept when capturing. */
+	private Integer captureMaxBytes = 2048;
+	/** How long the writer sleeps when the buffer is empty. */
+	private Duration idleWait = Duration.ofMillis(10);
+}
@@ -0,0 +1,34 @@
+package dev.api.auth.authservice.common.filter.accesslog;
+
+/**
+ * Fixed layout access log entry. Instances are preallocated in the ring buffer and
+ * overwritten in place, so logging a request allocates no record.
+ */
+final class AccessLogRecord {
+	long timestampMillis;
+	long durationMicros;
+	long requestBytes;
+	long responseBytes;
+	int status;
+	String requestId;
+	String method;
+	String uri;
+	String queryString;
+	String clientIp;
+	String userAgent;
+	String actor;
+	String requestBody;
+	String responseBody;
+
+	void clear() {
+		requestId = null;
+		method = null;
+		uri = null;
+		queryString = null;
+		clientIp = null;
+		userAgent = null;
+		actor = null;
+		requestBody = null;
+		responseBody = null;
+	}
+}
@@ -0,0 +1,76 @@
+package dev.api.auth.authservice.common.filter.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring of preallocated {@link AccessLogRecord}s.
+ * Each slot carries a sequence number telling whether it is free for the producer claiming
+ * position {@code p} ({@code seq == p}) or published for the consumer ({@code seq == p + 1}).
+ * <p>
+ * Producers call {@link #claim()}, fill {@link #slot(long)} and {@link #publish(long)} it.
+ * The consumer calls {@link #poll()} and {@link #release(long)} the slot once processed.
+ */
+final class AccessLogRingBuffer {
+
+	private final AccessLogRecord[] slots;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private long head;
+
+	AccessLogRingBuffer(int requestedCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+		this.slots = new AccessLogRecord[capacity];
+		this.sequences = new AtomicLongArray(capacity);
+		this.mask = capacity - 1;
+		for (int i = 0; i < capacity; i++) {
+			slots[i] = new AccessLogRecord();
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Claims the next free slot.
+	 *
+	 * @return the claimed position, or -1 if the buffer is full
+	 */
+	long claim() {
+		long position = tail.get();
+		while (true) {
+			long sequence = sequences.getAcquire((int) (position & mask));
+			if (sequence == position) {
+				if (tail.compareAndSet(position, position + 1)) return position;
+				position = tail.get();
+			} else if (sequence < position) {
+				return -1;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	AccessLogRecord slot(long position) {
+		return slots[(int) (position & mask)];
+	}
+
+	void publish(long position) {
+		sequences.setRelease((int) (position & mask), position + 1);
+	}
+
+	/**
+	 * Returns the position of the next published record. Consumer thread only.
+	 *
+	 * @return the position, or -1 if nothing is published yet
+	 */
+	long poll() {
+		long position = head;
+		if (sequences.getAcquire((int) (position & mask)) != position + 1) return -1;
+		head = position + 1;
+		return position;
+	}
+
+	void release(long position) {
+		sequences.setRelease((int) (position & mask), position + slots.length);
+	}
+}
@@ -1,20 +1,35 @@
 package dev.api.auth.authservice.common.interceptors;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.entities.search.SearchCriteriaConverter;
+import dev.api.auth.authservice.common.interceptors.limiting.AuthThrottleInterceptor;
 import dev.api.auth.authservice.common.interceptors.limiting.RateLimitInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
- * Web configuration to register interceptors.
+ * Web configuration to register interceptors and request parameter converters.
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
 	private final RateLimitInterceptor rateLimitInterceptor;
+	private final AuthThrottleInterceptor authThrottleInterceptor;
+	private final ObjectMapper objectMapper;
 
-	public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+	public WebConfig(RateLimitInterceptor rateLimitInterceptor,
+					 AuthThrottleInterceptor authThrottleInterceptor,
+					 ObjectMapper objectMapper) {
 		this.rateLimitInterceptor = rateLimitInterceptor;
+		this.authThrottleInterceptor = authThrottleInterceptor;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void addFormatters(FormatterRegistry registry) {
+		registry.addConverter(new SearchCriteriaConverter(objectMapper));
 	}
 
 	@Override
@@ -24,9 +39,16 @@ public class WebConfig implements WebMvcConfigurer {
 				.excludePathPatterns(
 						"/auth/**",
 						"/healthcheck",
+						"/.well-known/**",
 						"/swagger-ui/**",
 						"/v3/api-docs/**"
 				);
+		registry.addInterceptor(authThrottleInterceptor)
+				.addPathPatterns(
+						"/auth/login",
+						"/auth/register",
+						"/auth/start-password-reset"
+				);
 	}
 }
 
@@ -0,0 +1,216 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.api.auth.authservice.common.exceptions.RateLimitExceededException;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.EstimationProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Throttles the unauthenticated credential endpoints along three dimensions: client IP, email
+ * address and a global budget. A client that keeps failing to log in to one email is additionally
+ * locked out of it for an exponentially growing period.
+ * <p>
+ * Logins are limited per email and client IP, and the lockout is keyed the same way, so nobody can
+ * lock a user out of their own account by sending requests or failing on purpose from elsewhere.
+ * Guessing one password from many addresses is capped by a looser per-email budget that only failed
+ * logins draw from; once it is spent, logins to the email are rejected for the rest of the window.
+ * <p>
+ * Clients and emails are tracked by a seeded 64-bit hash instead of the raw string, so an entry
+ * is a few dozen bytes whatever the input, and an attacker cannot aim collisions at a victim's key.
+ * Both caches are bounded by {@code ratelimit.auth.max-keys}.
+ */
+@Component
+public class AuthThrottle {
+
+	private record Failures(int count, Instant lockedUntil) {}
+
+	private final AuthThrottleProperties props;
+	private final long seed = new SecureRandom().nextLong();
+	private final Bucket global;
+	private final Cache<Long, Bucket> ipBuckets;
+	private final Cache<Long, Bucket> emailBuckets;
+	private final Cache<Long, Bucket> loginBuckets;
+	private final Cache<Long, Bucket> loginFailureBuckets;
+	private final Cache<Long, Failures> failures;
+	private final Counter rejectedIp;
+	private final Counter rejectedEmail;
+	private final Counter rejectedGlobal;
+	private final Counter rejectedLockout;
+
+	public AuthThrottle(AuthThrottleProperties props, MeterRegistry meterRegistry) {
+		this.props = props;
+		this.global = Bucket.builder()
+				.addLimit(Bandwidth.simple(props.getGlobalPerSecond(), Duration.ofSeconds(1)))
+				.build();
+		this.ipBuckets = Caffeine.newBuilder()
+				.expireAfterAccess(props.getWindow())
+				.maximumSize(props.getMaxKeys())
+				.build();
+		this.emailBuckets = Caffeine.newBuilder()
+				.expireAfterAccess(props.getWindow())
+				.maximumSize(props.getMaxKeys())
+				.build();
+		this.loginBuckets = Caffeine.newBuilder()
+				.expireAfterAccess(props.getWindow())
+				.maximumSize(props.getMaxKeys())
+				.build();
+		this.loginFailureBuckets = Caffeine.newBuilder()
+				.expireAfterAccess(props.getWindow())
+				.maximumSize(props.getMaxKeys())
+				.build();
+		this.failures = Caffeine.newBuilder()
+				.expireAfterWrite(props.getLockoutMax().multipliedBy(2))
+				.maximumSize(props.getMaxKeys())
+				.build();
+		this.rejectedIp = rejectedCounter(meterRegistry, "ip");
+		this.rejectedEmail = rejectedCounter(meterRegistry, "email");
+		this.rejectedGlobal = rejectedCounter(meterRegistry, "global");
+		this.rejectedLockout = rejectedCounter(meterRegistry, "lockout");
+	}
+
+	/**
+	 * Consumes from the per-IP and the global bucket. Meant to run before the request body is read.
+	 *
+	 * @param clientIp the client address
+	 * @throws RateLimitExceededException if either bucket is empty
+	 */
+	public void checkClient(String clientIp) {
+		Bucket bucket = ipBuckets.get(hash(clientIp), k -> bucket(props.getPerIp()));
+		consume(bucket, rejectedIp, "Too many authentication requests from this address");
+		consume(global, rejectedGlobal, "Authentication service is busy");
+	}
+
+	/**
+	 * Consumes from the per-email bucket. Used by the endpoints that act on an email without a
+	 * password, such as registration and password reset; logins go through {@link #checkLogin}.
+	 * Must run before the user is looked up or a password is hashed.
+	 *
+	 * @param email the email the request is about
+	 * @throws RateLimitExceededException if the email's bucket is empty
+	 */
+	public void checkCredential(String email) {
+		if (email == null) return;
+		Bucket bucket = emailBuckets.get(hash(normalize(email)), k -> bucket(props.getPerEmail()));
+		consume(bucket, rejectedEmail, "Too many authentication requests for this account");
+	}
+
+	/**
+	 * Rejects a client locked out of an email, then consumes from the bucket of the email and client
+	 * address. The per-email failure budget is only checked here; {@link #recordFailure} draws from it.
+	 * Must run before the user is looked up or a password is hashed.
+	 *
+	 * @param email    the email to log in to
+	 * @param clientIp the client address
+	 * @throws RateLimitExceededException if the client is locked out of the email, its bucket for the email
+	 *                                    is empty or the email's failure budget is spent
+	 */
+	public void checkLogin(String email, String clientIp) {
+		if (email == null) return;
+		Failures current = failures.getIfPresent(loginKey(email, clientIp));
+		if (current != null && current.lockedUntil() != null) {
+			Duration remaining = Duration.between(Instant.now(), current.lockedUntil());
+			if (remaining.isPositive()) {
+				rejectedLockout.increment();
+				throw new RateLimitExceededException("Too many failed attempts, try again later", remaining);
+			}
+		}
+		Bucket bucket = loginBuckets.get(loginKey(email, clientIp), k -> bucket(props.getPerEmail()));
+		consume(bucket, rejectedEmail, "Too many authentication requests for this account");
+		Bucket failureBudget = loginFailureBuckets.getIfPresent(hash(normalize(email)));
+		if (failureBudget != null) {
+			EstimationProbe probe = failureBudget.estimateAbilityToConsume(1);
+			if (!probe.canBeConsumed()) {
+				rejectedEmail.increment();
+				throw new RateLimitExceededException("Too many failed attempts for this account, try again later",
+						Duration.ofNanos(probe.getNanosToWaitForRefill()));
+			}
+		}
+	}
+
+	/**
+	 * Counts a failed login against the email's failure budget and the client's failure history;
+	 * from {@code ratelimit.auth.lockout-threshold} failures on, each failure locks the client out
+	 * of the email for twice as long as the previous one.
+	 *
+	 * @param email    the email that failed to log in
+	 * @param clientIp the client address
+	 */
+	public void recordFailure(String email, String clientIp) {
+		if (email == null) return;
+		loginFailureBuckets.get(hash(normalize(email)), k -> bucket(props.getPerEmailFailures())).tryConsume(1);
+		failures.asMap().compute(loginKey(email, clientIp), (k, previous) -> {
+			int count = previous == null ? 1 : previous.count() + 1;
+			int over = count - props.getLockoutThreshold();
+			if (over < 0) return new Failures(count, null);
+			Duration lockout = props.getLockoutBase().multipliedBy(1L << Math.min(over, 20));
+			if (lockout.compareTo(props.getLockoutMax()) > 0) lockout = props.getLockoutMax();
+			return new Failures(count, Instant.now().plus(lockout));
+		});
+	}
+
+	/**
+	 * Clears the failure history of a client for an email after a successful login.
+	 *
+	 * @param email    the email that logged in
+	 * @param clientIp the client address
+	 */
+	public void recordSuccess(String email, String clientIp) {
+		if (email == null) return;
+		failures.invalidate(loginKey(email, clientIp));
+	}
+
+	private Bucket bucket(int capacity) {
+		return Bucket.builder()
+				.addLimit(Bandwidth.simple(capacity, props.getWindow()))
+				.build();
+	}
+
+	private static void consume(Bucket bucket, Counter rejected, String message) {
+		ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+		if (!probe.isConsumed()) {
+			rejected.increment();
+			throw new RateLimitExceededException(message, Duration.ofNanos(probe.getNanosToWaitForRefill()));
+		}
+	}
+
+	private static String normalize(String email) {
+		return email.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private long loginKey(String email, String clientIp) {
+		return hash(normalize(email) + '\0' + clientIp);
+	}
+
+	/**
+	 * Seeded FNV-1a followed by a 64-bit finalizer.
+	 */
+	private long hash(String value) {
+		long h = 0xcbf29ce484222325L ^ seed;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b;
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static Counter rejectedCounter(MeterRegistry meterRegistry, String dimension) {
+		return Counter.builder("auth.throttle.rejected")
+				.tag("dimension", dimension)
+				.register(meterRegistry);
+	}
+}
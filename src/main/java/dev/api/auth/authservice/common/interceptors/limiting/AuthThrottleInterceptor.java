@@ -0,0 +1,29 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import dev.api.auth.authservice.common.exceptions.RateLimitExceededException;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the per-IP and global auth limits before the controller runs, so rejected
+ * requests never have their body parsed, touch the database or reach the hashing pool.
+ */
+@Component
+public class AuthThrottleInterceptor implements HandlerInterceptor {
+	private final AuthThrottle authThrottle;
+
+	public AuthThrottleInterceptor(AuthThrottle authThrottle) {
+		this.authThrottle = authThrottle;
+	}
+
+	@Override
+	public boolean preHandle(@Nonnull HttpServletRequest request,
+							 @Nonnull HttpServletResponse response,
+							 @Nonnull Object handler) throws RateLimitExceededException {
+		authThrottle.checkClient(request.getRemoteAddr());
+		return true;
+	}
+}
@@ -0,0 +1,33 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "ratelimit.auth")
+public class AuthThrottleProperties {
+	/** Requests to the throttled auth endpoints allowed per client IP and window. */
+	private Integer perIp = 30;
+	/** Requests allowed per email address and window, counted per client IP for logins. */
+	private Integer perEmail = 10;
+	/** Failed logins to one email allowed per window across all client IPs. */
+	private Integer perEmailFailures = 50;
+	/** Requests allowed across all clients per second, protecting the hashing pool. */
+	private Integer globalPerSecond = 200;
+	/** Refill window of the per-IP, per-email and failure buckets. */
+	private Duration window = Duration.ofMinutes(1);
+	/** Failed logins from one client IP for one email before the client is locked out of it. */
+	private Integer lockoutThreshold = 5;
+	/** First lockout; doubles with every further failure. */
+	private Duration lockoutBase = Duration.ofSeconds(30);
+	/** Upper bound of a single lockout. */
+	private Duration lockoutMax = Duration.ofMinutes(15);
+	/** Upper bound on tracked keys per dimension. */
+	private Long maxKeys = 100_000L;
+}
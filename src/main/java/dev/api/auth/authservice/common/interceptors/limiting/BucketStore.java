@@ -0,0 +1,22 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+/**
+ * Backend holding the rate limit bucket of every key.
+ * Selected with {@code ratelimit.store}: {@code memory} (per replica) or {@code jdbc} (shared by all replicas).
+ */
+public interface BucketStore {
+
+	/**
+	 * Returns the bucket for a key, creating it from the configuration when the key is new.
+	 *
+	 * @param key           the bucket key
+	 * @param configuration supplies the limits of a new bucket
+	 * @return the bucket
+	 */
+	Bucket resolve(String key, Supplier<BucketConfiguration> configuration);
+}
@@ -0,0 +1,46 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps buckets in a bounded Caffeine cache. Buckets untouched for {@code ratelimit.idle-timeout}
+ * are evicted; by then they have refilled, so recreating one later does not change the limit.
+ * {@code ratelimit.max-buckets} caps memory under a long tail of keys.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ratelimit", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryBucketStore implements BucketStore {
+
+	private final Cache<String, Bucket> buckets;
+
+	public InMemoryBucketStore(RateLimitProperties props, MeterRegistry meterRegistry) {
+		this.buckets = Caffeine.newBuilder()
+				.expireAfterAccess(props.getIdleTimeout())
+				.maximumSize(props.getMaxBuckets())
+				.build();
+		Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+		return buckets.get(key, k -> {
+			LocalBucketBuilder builder = Bucket.builder();
+			for (Bandwidth bandwidth : configuration.get().getBandwidths()) {
+				builder.addLimit(bandwidth);
+			}
+			return builder.build();
+		});
+	}
+}
@@ -0,0 +1,172 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import dev.api.auth.authservice.common.lock.SchedulerLock;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps buckets in the {@code rate_limit_buckets} table, so every replica draws from one quota.
+ * Built on Bucket4j's compare-and-swap proxy manager: a consume reads the serialized state,
+ * applies the command locally and writes it back only if the row still holds the state it read,
+ * retrying otherwise. No row locks are held between the read and the write.
+ * <p>
+ * Each write records when the bucket will be full again; past that point the row is equivalent
+ * to a fresh bucket and is purged, on one replica at a time (see {@link SchedulerLock}).
+ * <p>
+ * The asynchronous operations run the same statements on the calling thread and return completed
+ * futures; async mode is not advertised, since JDBC blocks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ratelimit", name = "store", havingValue = "jdbc")
+public class JdbcBucketStore implements BucketStore {
+
+	private static final Logger log = LoggerFactory.getLogger(JdbcBucketStore.class);
+	private static final String LOCK_NAME = "rate-limit-purge";
+
+	private static final String SELECT = "SELECT state FROM rate_limit_buckets WHERE id = ?";
+	private static final String INSERT = """
+			INSERT INTO rate_limit_buckets (id, state, expires_at) VALUES (?, ?, ?)
+			ON CONFLICT (id) DO NOTHING
+			""";
+	private static final String UPDATE = """
+			UPDATE rate_limit_buckets SET state = ?, expires_at = ?
+			WHERE id = ? AND state = ?
+			""";
+	private static final String DELETE = "DELETE FROM rate_limit_buckets WHERE id = ?";
+	private static final String PURGE = """
+			DELETE FROM rate_limit_buckets WHERE id IN (
+			    SELECT id FROM rate_limit_buckets WHERE expires_at < ? LIMIT ?
+			)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final SchedulerLock schedulerLock;
+	private final RateLimitProperties props;
+	private final ProxyManager<String> proxyManager;
+
+	public JdbcBucketStore(JdbcTemplate jdbcTemplate, SchedulerLock schedulerLock, RateLimitProperties props) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.schedulerLock = schedulerLock;
+		this.props = props;
+		this.proxyManager = new JdbcProxyManager();
+	}
+
+	@Override
+	public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+		return proxyManager.builder().build(key, configuration);
+	}
+
+	/**
+	 * Deletes rows of buckets that have fully refilled.
+	 */
+	@Scheduled(fixedDelayString = "${ratelimit.purge-interval:PT5M}")
+	public void purge() {
+		if (!schedulerLock.tryAcquire(LOCK_NAME, props.getPurgeLockLease())) return;
+		try {
+			Timestamp now = Timestamp.from(Instant.now());
+			int deleted;
+			do {
+				deleted = jdbcTemplate.update(PURGE, now, props.getPurgeBatchSize());
+			} while (deleted == props.getPurgeBatchSize());
+		} catch (RuntimeException e) {
+			log.error("Failed to purge rate limit buckets", e);
+		} finally {
+			schedulerLock.release(LOCK_NAME);
+		}
+	}
+
+	private final class JdbcProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+		private JdbcProxyManager() {
+			super(ClientSideConfig.getDefault());
+		}
+
+		@Override
+		protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+			return new CompareAndSwapOperation() {
+				@Override
+				public Optional<byte[]> getStateData() {
+					List<byte[]> rows = jdbcTemplate.query(SELECT, (rs, i) -> rs.getBytes(1), key);
+					return rows.isEmpty() ? Optional.empty() : Optional.of(rows.getFirst());
+				}
+
+				@Override
+				public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+					Timestamp expiresAt = expiresAt(newState);
+					if (originalData == null) {
+						return jdbcTemplate.update(INSERT, key, newData, expiresAt) > 0;
+					}
+					return jdbcTemplate.update(UPDATE, newData, expiresAt, key, originalData) > 0;
+				}
+			};
+		}
+
+		@Override
+		protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+			CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+			return new AsyncCompareAndSwapOperation() {
+				@Override
+				public CompletableFuture<Optional<byte[]>> getStateData() {
+					return completed(operation::getStateData);
+				}
+
+				@Override
+				public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+					return completed(() -> operation.compareAndSwap(originalData, newData, newState));
+				}
+			};
+		}
+
+		@Override
+		public void removeProxy(String key) {
+			jdbcTemplate.update(DELETE, key);
+		}
+
+		@Override
+		protected CompletableFuture<Void> removeAsync(String key) {
+			return completed(() -> {
+				removeProxy(key);
+				return null;
+			});
+		}
+
+		@Override
+		public boolean isAsyncModeSupported() {
+			return false;
+		}
+
+		private static <T> CompletableFuture<T> completed(Supplier<T> operation) {
+			try {
+				return CompletableFuture.completedFuture(operation.get());
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+
+		private static Timestamp expiresAt(RemoteBucketState state) {
+			long nowNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+			long refillNanos = state.calculateFullRefillingTime(nowNanos);
+			return Timestamp.from(Instant.now().plusNanos(refillNanos));
+		}
+	}
+}
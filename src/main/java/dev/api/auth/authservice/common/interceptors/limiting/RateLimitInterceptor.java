@@ -1,15 +1,25 @@
 package dev.api.auth.authservice.common.interceptors.limiting;
 
 import dev.api.auth.authservice.common.exceptions.RateLimitExceededException;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges every request its {@link RateLimited} cost and reports the quota in the
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining}, {@code RateLimit-Reset} and
+ * {@code RateLimit-Policy} headers.
+ */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 	private final RateLimitingService rateLimitingService;
@@ -23,16 +33,39 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 							 @Nonnull HttpServletResponse response,
 							 @Nonnull Object handler) throws RateLimitExceededException {
 		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-			Bucket bucket = rateLimitingService.resolveBucket(
-					(auth != null && auth.isAuthenticated())
-							? auth.getName() + ":" + auth.getAuthorities().stream().findFirst().map(Object::toString).orElse("ROLE_GUEST")
-							: "ROLE_GUEST"
-			);
-			if (bucket.tryConsume(1)) {
-				return true;
-			} else {
-				throw new RateLimitExceededException("Rate limit exceeded for user: " +
-						(auth != null ? auth.getName() : "GUEST"));
-			}
+		String key = (auth != null && auth.isAuthenticated())
+				? auth.getName() + ":" + auth.getAuthorities().stream().findFirst().map(Object::toString).orElse("ROLE_GUEST")
+				: request.getRemoteAddr() + ":ROLE_GUEST";
+
+		ConsumptionProbe probe = rateLimitingService.tryConsume(key, cost(handler));
+		RateLimitingService.Policy policy = rateLimitingService.policy(key);
+		response.setHeader("RateLimit-Limit", String.valueOf(policy.sustained()));
+		response.setHeader("RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+		response.setHeader("RateLimit-Reset", String.valueOf(seconds(probe.getNanosToWaitForReset())));
+		response.setHeader("RateLimit-Policy", policyHeader(policy));
+		if (probe.isConsumed()) {
+			return true;
+		}
+		throw new RateLimitExceededException("Rate limit exceeded for user: " +
+				(auth != null ? auth.getName() : "GUEST"), Duration.ofNanos(probe.getNanosToWaitForRefill()));
+	}
+
+	private static int cost(Object handler) {
+		if (!(handler instanceof HandlerMethod method)) return 1;
+		RateLimited limited = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), RateLimited.class);
+		if (limited == null) {
+			limited = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), RateLimited.class);
+		}
+		return limited != null ? Math.max(1, limited.cost()) : 1;
+	}
+
+	private static String policyHeader(RateLimitingService.Policy policy) {
+		String sustained = policy.sustained() + ";w=" + policy.window().toSeconds();
+		if (policy.burst() <= 0) return sustained;
+		return sustained + ", " + policy.burst() + ";w=" + Math.max(1, policy.burstWindow().toSeconds());
+	}
+
+	private static long seconds(long nanos) {
+		return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
 	}
 }
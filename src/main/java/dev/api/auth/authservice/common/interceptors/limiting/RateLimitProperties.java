@@ -5,6 +5,10 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @Component
@@ -15,5 +19,18 @@ public class RateLimitProperties {
 	private Integer api;
 	private Integer guest;
 	private Integer window;
+	/** Tokens per {@link #burstWindow} by role ({@code admin}, {@code user}, {@code api}, {@code guest}); roles without an entry only get the sustained limit. */
+	private Map<String, Integer> burst = new HashMap<>();
+	/** Refill window of the burst bandwidth. */
+	private Duration burstWindow = Duration.ofSeconds(1);
+	/** Bucket backend: {@code memory} or {@code jdbc}. */
+	private String store = "memory";
+	/** In-memory store: upper bound on the number of buckets kept. */
+	private Long maxBuckets = 100_000L;
+	/** In-memory store: a bucket unused for this long is evicted. */
+	private Duration idleTimeout = Duration.ofMinutes(10);
+	/** JDBC store: rows deleted per purge statement. */
+	private Integer purgeBatchSize = 1000;
+	/** JDBC store: lease of the purge lock; must exceed one purge run. */
+	private Duration purgeLockLease = Duration.ofMinutes(2);
 }
-
@@ -0,0 +1,17 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares the token cost of an endpoint for the per-user rate limiter.
+ * Endpoints without the annotation cost one token; heavy endpoints should cost roughly
+ * as many tokens as cheap requests they are worth in load.
+ * When applied to a controller class, the cost applies to every method not annotated itself.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+	/** Tokens consumed per request. */
+	int cost() default 1;
+}
@@ -2,28 +2,71 @@ package dev.api.auth.authservice.common.interceptors.limiting;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConfigurationBuilder;
+import io.github.bucket4j.ConsumptionProbe;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Locale;
 
+/**
+ * Per user rate limiting. Every role has a sustained bandwidth ({@code ratelimit.<role>} tokens per
+ * {@code ratelimit.window} seconds) and optionally a burst bandwidth ({@code ratelimit.burst.<role>}
+ * tokens per {@code ratelimit.burst-window}); a request must fit in both.
+ */
 @Component
 public class RateLimitingService {
 
+	/**
+	 * Limits applying to one role.
+	 *
+	 * @param sustained   tokens per window
+	 * @param window      the sustained window
+	 * @param burst       tokens per burst window, or 0 without a burst bandwidth
+	 * @param burstWindow the burst window
+	 */
+	public record Policy(long sustained, Duration window, long burst, Duration burstWindow) {
+		/**
+		 * @return the largest cost a single request can be charged
+		 */
+		public long capacity() {
+			return burst > 0 ? Math.min(burst, sustained) : sustained;
+		}
+	}
+
 	private final RateLimitProperties props;
-	private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+	private final BucketStore bucketStore;
 
-	public RateLimitingService(RateLimitProperties props) {
+	public RateLimitingService(RateLimitProperties props, BucketStore bucketStore) {
 		this.props = props;
+		this.bucketStore = bucketStore;
 	}
 
 	public Bucket resolveBucket(String key) {
-		return cache.computeIfAbsent(key, this::createNewBucket);
+		return bucketStore.resolve(key, () -> configuration(policy(key)));
+	}
+
+	/**
+	 * Consumes the cost of a request from the key's bucket. Costs above the bucket capacity are
+	 * charged the full capacity, so heavy requests stay possible but drain the whole quota.
+	 *
+	 * @param key  the bucket key ({@code name:role})
+	 * @param cost the tokens the request costs
+	 * @return the consumption result
+	 */
+	public ConsumptionProbe tryConsume(String key, long cost) {
+		return resolveBucket(key).tryConsumeAndReturnRemaining(Math.min(cost, policy(key).capacity()));
 	}
 
-	private Bucket createNewBucket(String key) {
-		String role = key.contains(":") ? key.split(":")[1] : "ROLE_GUEST";
+	/**
+	 * Returns the limits of the role encoded in a bucket key.
+	 *
+	 * @param key the bucket key ({@code name:role})
+	 * @return the policy
+	 */
+	public Policy policy(String key) {
+		String role = key.contains(":") ? key.substring(key.lastIndexOf(':') + 1) : "ROLE_GUEST";
 
 		int limit = switch (role) {
 			case "ROLE_ADMIN" -> props.getAdmin();
@@ -31,9 +74,21 @@ public class RateLimitingService {
 			case "ROLE_API"   -> props.getApi();
 			default           -> props.getGuest();
 		};
+		String name = switch (role) {
+			case "ROLE_ADMIN", "ROLE_USER", "ROLE_API" -> role.substring("ROLE_".length()).toLowerCase(Locale.ROOT);
+			default -> "guest";
+		};
+
+		return new Policy(limit, Duration.ofSeconds(props.getWindow()),
+				props.getBurst().getOrDefault(name, 0), props.getBurstWindow());
+	}
 
-		return Bucket.builder()
-				.addLimit(Bandwidth.simple(limit, Duration.ofSeconds(props.getWindow())))
-				.build();
+	private BucketConfiguration configuration(Policy policy) {
+		ConfigurationBuilder builder = BucketConfiguration.builder()
+				.addLimit(Bandwidth.simple(policy.sustained(), policy.window()));
+		if (policy.burst() > 0) {
+			builder.addLimit(Bandwidth.simple(policy.burst(), policy.burstWindow()));
+		}
+		return builder.build();
 	}
 }
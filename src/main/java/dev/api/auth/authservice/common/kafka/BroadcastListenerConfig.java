@@ -0,0 +1,34 @@
+package dev.api.auth.authservice.common.kafka;
+
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Container factory for listeners that every instance must run on every message, like cache and
+ * denylist replication. Such a listener uses a consumer group of its own per instance
+ * ({@code kafka.instance-id}), positions itself when partitions are assigned (see
+ * {@link org.springframework.kafka.listener.ConsumerSeekAware}) and never commits offsets, so a
+ * restart neither replays the topic from the beginning nor leaves group offsets behind: a group
+ * without offsets is removed by the broker once its member leaves.
+ */
+@Configuration
+public class BroadcastListenerConfig {
+
+	public static final String CONTAINER_FACTORY = "broadcastListenerContainerFactory";
+
+	@Bean(name = CONTAINER_FACTORY)
+	public ConcurrentKafkaListenerContainerFactory<Object, Object> broadcastListenerContainerFactory(
+			ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+			ConsumerFactory<Object, Object> consumerFactory) {
+		ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		configurer.configure(factory, consumerFactory);
+		// listeners never acknowledge, so nothing is committed
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+		factory.setConcurrency(1);
+		return factory;
+	}
+}
@@ -0,0 +1,16 @@
+package dev.api.auth.authservice.common.kafka;
+
+import java.time.Instant;
+
+/**
+ * Application event raised for every message written to the outbox, for in-process listeners
+ * such as the WebSocket push channel. Listen with {@code @TransactionalEventListener} to see only
+ * committed changes.
+ *
+ * @param topic     the Kafka topic of the message
+ * @param key       the aggregate id
+ * @param type      the message type
+ * @param timestamp when the message was created
+ * @param payload   the unserialized payload
+ */
+public record EntityChangedEvent(String topic, String key, KafkaMessage.KafkaMessageType type, Instant timestamp, Object payload) {}
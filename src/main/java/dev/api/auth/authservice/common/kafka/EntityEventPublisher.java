@@ -1,37 +1,51 @@
 package dev.api.auth.authservice.common.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.kafka.outbox.OutboxEvent;
+import dev.api.auth.authservice.common.kafka.outbox.OutboxEventRepository;
+import dev.api.auth.authservice.common.kafka.serialization.KafkaPayloadSerializer;
+import dev.api.auth.authservice.common.kafka.serialization.KafkaPayloadSerializers;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for publishing entity events to Kafka topics.
+ * Payloads are serialized with the format configured for the topic, written to the outbox
+ * within the caller's transaction and relayed to Kafka after commit by
+ * {@link dev.api.auth.authservice.common.kafka.outbox.OutboxRelay}, so a rollback never
+ * leaks an event and the broker is never on the request path.
+ * Each event is also raised in-process as an {@link EntityChangedEvent}.
  */
 @Service
 public class EntityEventPublisher {
 
-	private final KafkaService kafkaService;
-	private final ObjectMapper objectMapper;
+	private final OutboxEventRepository outboxRepository;
+	private final KafkaPayloadSerializers serializers;
+	private final ApplicationEventPublisher applicationEventPublisher;
 
-	public EntityEventPublisher(KafkaService kafkaService, ObjectMapper objectMapper) {
-		this.kafkaService = kafkaService;
-		this.objectMapper = objectMapper;
+	public EntityEventPublisher(OutboxEventRepository outboxRepository,
+								KafkaPayloadSerializers serializers,
+								ApplicationEventPublisher applicationEventPublisher) {
+		this.outboxRepository = outboxRepository;
+		this.serializers = serializers;
+		this.applicationEventPublisher = applicationEventPublisher;
 	}
 
 	/**
 	 * Publishes an event to a specified Kafka topic.
 	 *
 	 * @param topic   the Kafka topic to which the event will be published
+	 * @param key     the aggregate id; events sharing a key are delivered in order
 	 * @param type    the type of the event (CREATE, UPDATE, DELETE, RESTORE)
 	 * @param payload the payload of the event
 	 * @param <T>     the type of the payload
 	 */
-	public <T> void publishEvent(String topic, KafkaMessage.KafkaMessageType type, T payload) {
+	@Transactional(propagation = Propagation.MANDATORY)
+	public <T> void publishEvent(String topic, String key, KafkaMessage.KafkaMessageType type, T payload) {
 		KafkaMessage<T> message = new KafkaMessage<>(type, payload);
-		try {
-			String messageJson = objectMapper.writeValueAsString(message);
-			kafkaService.emit(topic, messageJson);
-		} catch (Exception e) {
-			throw new RuntimeException("Failed to serialize Kafka message", e);
-		}
+		KafkaPayloadSerializer serializer = serializers.forTopic(topic);
+		outboxRepository.save(new OutboxEvent(topic, key, serializer.serialize(message), serializer.contentType()));
+		applicationEventPublisher.publishEvent(new EntityChangedEvent(topic, key, type, message.getTimestamp(), payload));
 	}
 }
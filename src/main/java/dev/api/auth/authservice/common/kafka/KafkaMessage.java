@@ -7,7 +7,7 @@ import java.time.Instant;
 public class KafkaMessage<T> {
 
 	public enum KafkaMessageType {
-		CREATE_ENTITY, UPDATE_ENTITY, DELETE_ENTITY, RESTORE_ENTITY, EMAIL
+		CREATE_ENTITY, UPDATE_ENTITY, DELETE_ENTITY, RESTORE_ENTITY, EMAIL, REVOKE_TOKEN
 	}
 
 	@Getter
@@ -0,0 +1,19 @@
+package dev.api.auth.authservice.common.kafka;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "kafka.publisher")
+public class KafkaPublisherProperties {
+	/** Messages that may await a broker acknowledgement at once; further publishers wait. */
+	private Integer maxInFlight = 1000;
+	/** How long a publisher waits for an in-flight slot before the publish fails. */
+	private Duration acquireTimeout = Duration.ofSeconds(5);
+}
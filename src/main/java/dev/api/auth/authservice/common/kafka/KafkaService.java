@@ -1,37 +1,131 @@
 package dev.api.auth.authservice.common.kafka;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Service for emitting messages to Kafka topics.
+ * Sends are asynchronous and keyed, bounded by {@code kafka.publisher.max-in-flight}
+ * unacknowledged messages. {@link #send} forwards a message it could not deliver to the topic's
+ * DLQ; callers that retry on their own, like the outbox relay, use {@link #attempt} until their
+ * last try. Batching, linger and compression are producer settings under {@code spring.kafka.producer}.
  */
 @Service
 public class KafkaService {
-	private final KafkaTemplate<String, String> kafkaTemplate;
+	private static final Logger log = LoggerFactory.getLogger(KafkaService.class);
+	private static final String DLQ_SUFFIX = ".DLQ";
+	/** Kafka's default {@code delivery.timeout.ms}. */
+	private static final Duration DEFAULT_DELIVERY_TIMEOUT = Duration.ofMinutes(2);
+
+	private final KafkaTemplate<String, byte[]> kafkaTemplate;
+	private final KafkaPublisherProperties props;
+	private final Semaphore inFlight;
+	private final Counter rejected;
+	private final Counter deadLettered;
+	private final Duration maxAttemptTime;
 
-	public KafkaService(KafkaTemplate<String, String> kafkaTemplate) {
+	public KafkaService(KafkaTemplate<String, byte[]> kafkaTemplate,
+						KafkaPublisherProperties props,
+						MeterRegistry meterRegistry) {
 		this.kafkaTemplate = kafkaTemplate;
+		this.props = props;
+		this.inFlight = new Semaphore(props.getMaxInFlight());
+		this.rejected = Counter.builder("kafka.publish.rejected")
+				.description("Sends that found no free in-flight slot in time")
+				.register(meterRegistry);
+		this.deadLettered = Counter.builder("kafka.publish.dead_lettered")
+				.description("Messages forwarded to a DLQ after their send failed")
+				.register(meterRegistry);
+		this.maxAttemptTime = props.getAcquireTimeout().plus(deliveryTimeout(kafkaTemplate));
+		Gauge.builder("kafka.publish.in_flight", inFlight, s -> props.getMaxInFlight() - s.availablePermits())
+				.register(meterRegistry);
 	}
 
 	/**
-	 * Emit a message to a Kafka topic.
+	 * Send a keyed message to a Kafka topic, forwarding it to the topic's DLQ if it cannot be delivered.
 	 *
-	 * @param topic   the Kafka topic to which the message will be sent
-	 * @param message the message to be sent
+	 * @param topic       the Kafka topic to which the message will be sent
+	 * @param key         the message key, messages sharing a key land on the same partition
+	 * @param message     the serialized message
+	 * @param contentType the message format, sent as the {@code contentType} header
+	 * @return future completed when the broker acknowledges the message or its DLQ copy, failed only if both failed
 	 */
-	public void emit(String topic, String message) {
-		kafkaTemplate.send(topic, message);
+	public CompletableFuture<SendResult<String, byte[]>> send(String topic, String key, byte[] message, String contentType) {
+		// off the producer thread that failed the attempt, since the DLQ send may wait for an in-flight slot
+		return attempt(topic, key, message, contentType).exceptionallyComposeAsync(error -> {
+			log.error("Sending to {} failed, forwarding to its DLQ", topic, error);
+			return attempt(topic + DLQ_SUFFIX, key, message, contentType)
+					.whenComplete((result, dlqError) -> {
+						if (dlqError == null) deadLettered.increment();
+					});
+		});
 	}
 
 	/**
-	 * Send a message to the Dead Letter Queue (DLQ) for a specific topic.
+	 * Makes a single attempt to send a keyed message to a Kafka topic; a failure is left to the caller,
+	 * which must eventually fall back to {@link #send}. Waits up to {@code kafka.publisher.acquire-timeout}
+	 * when too many messages are awaiting acknowledgement, so it must not be called on the
+	 * producer's network thread, e.g. from a callback of another send.
 	 *
-	 * @param originalTopic the original Kafka topic
-	 * @param message       the message to be sent to the DLQ
+	 * @param topic       the Kafka topic to which the message will be sent
+	 * @param key         the message key, messages sharing a key land on the same partition
+	 * @param message     the serialized message
+	 * @param contentType the message format, sent as the {@code contentType} header
+	 * @return future completed when the broker acknowledges the message, or failed if it could not be sent
 	 */
-	public void sendToDLQ(String originalTopic, String message) {
-		emit(originalTopic + ".DLQ", message);
+	public CompletableFuture<SendResult<String, byte[]>> attempt(String topic, String key, byte[] message, String contentType) {
+		try {
+			if (!inFlight.tryAcquire(props.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+				rejected.increment();
+				return CompletableFuture.failedFuture(
+						new IllegalStateException("Kafka publisher saturated, " + props.getMaxInFlight() + " messages in flight"));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.failedFuture(e);
+		}
+
+		ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, message);
+		record.headers().add(MessageHeaders.CONTENT_TYPE, contentType.getBytes(StandardCharsets.UTF_8));
+		CompletableFuture<SendResult<String, byte[]>> future;
+		try {
+			future = kafkaTemplate.send(record);
+		} catch (RuntimeException e) {
+			inFlight.release();
+			return CompletableFuture.failedFuture(e);
+		}
+		return future.whenComplete((result, error) -> inFlight.release());
 	}
-}
 
+	/**
+	 * Longest a future returned by {@link #attempt} stays incomplete: the in-flight slot wait plus the
+	 * producer's {@code delivery.timeout.ms}, after which the producer fails the send itself.
+	 * A {@link #send} may take twice as long when it falls back to the DLQ.
+	 *
+	 * @return the upper bound of a single attempt
+	 */
+	public Duration maxAttemptTime() {
+		return maxAttemptTime;
+	}
+
+	private static Duration deliveryTimeout(KafkaTemplate<String, byte[]> kafkaTemplate) {
+		Object configured = kafkaTemplate.getProducerFactory().getConfigurationProperties()
+				.get(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG);
+		return configured == null ? DEFAULT_DELIVERY_TIMEOUT : Duration.ofMillis(Long.parseLong(configured.toString()));
+	}
+}
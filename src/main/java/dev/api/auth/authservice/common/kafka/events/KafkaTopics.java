@@ -1,6 +1,25 @@
 package dev.api.auth.authservice.common.kafka.events;
 
+import java.util.Map;
+import java.util.Set;
+
 public class KafkaTopics {
 	public static final String USER_EVENTS = "user-events";
 	public static final String EMAIL_EVENTS = "email-events";
+	public static final String TOKEN_REVOCATIONS = "token-revocations";
+
+	/**
+	 * Default payload format per topic ("json" or "avro"), overridable with {@code kafka.serialization.topics}.
+	 * Topics stay on JSON until their consumers read the {@code contentType} header.
+	 */
+	public static final Map<String, String> FORMATS = Map.of(
+			USER_EVENTS, "json",
+			EMAIL_EVENTS, "json",
+			TOKEN_REVOCATIONS, "json"
+	);
+
+	/**
+	 * Topics consumed by this service's own listeners, which only read JSON, so their format cannot be overridden.
+	 */
+	public static final Set<String> JSON_ONLY = Set.of(TOKEN_REVOCATIONS);
 }
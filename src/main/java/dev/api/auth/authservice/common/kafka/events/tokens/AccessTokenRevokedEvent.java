@@ -0,0 +1,6 @@
+package dev.api.auth.authservice.common.kafka.events.tokens;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record AccessTokenRevokedEvent(UUID jti, Instant expiresAt) {}
@@ -0,0 +1,62 @@
+package dev.api.auth.authservice.common.kafka.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A Kafka message written in the same transaction as the change it describes,
+ * waiting to be relayed by {@link OutboxRelay}.
+ */
+@Entity
+@Table(name = "event_outbox")
+@Getter
+@Setter
+public class OutboxEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false)
+	private String topic;
+
+	@Column(name = "message_key")
+	private String messageKey;
+
+	@Column(nullable = false)
+	private byte[] payload;
+
+	@Column(name = "content_type", nullable = false)
+	private String contentType;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
+
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt;
+
+	@Column(name = "last_error", columnDefinition = "TEXT")
+	private String lastError;
+
+	public OutboxEvent(String topic, String messageKey, byte[] payload, String contentType) {
+		this.topic = topic;
+		this.messageKey = messageKey;
+		this.payload = payload;
+		this.contentType = contentType;
+		this.createdAt = Instant.now();
+		this.nextAttemptAt = this.createdAt;
+	}
+
+	public OutboxEvent() {}
+}
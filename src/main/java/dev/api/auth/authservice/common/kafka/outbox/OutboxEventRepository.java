@@ -0,0 +1,26 @@
+package dev.api.auth.authservice.common.kafka.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+	/**
+	 * Oldest events that are due, skipping any event queued behind an earlier event
+	 * with the same key that is still waiting for a retry.
+	 */
+	@Query(value = """
+			SELECT o.* FROM event_outbox o
+			WHERE o.next_attempt_at <= :now
+			  AND NOT EXISTS (
+			      SELECT 1 FROM event_outbox p
+			      WHERE p.message_key = o.message_key AND p.id < o.id AND p.next_attempt_at > :now)
+			ORDER BY o.id
+			LIMIT :limit
+			""", nativeQuery = true)
+	List<OutboxEvent> findDue(@Param("now") Instant now, @Param("limit") int limit);
+}
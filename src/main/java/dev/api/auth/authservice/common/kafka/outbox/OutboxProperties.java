@@ -0,0 +1,33 @@
+package dev.api.auth.authservice.common.kafka.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+	/** Whether this instance relays outbox events to Kafka. */
+	private boolean enabled = true;
+	/** Delay between two relay runs. */
+	private Duration pollInterval = Duration.ofSeconds(1);
+	/** Events read and sent per batch. */
+	private Integer batchSize = 200;
+	/** Longest a relay run keeps draining batches before yielding. */
+	private Duration maxRunTime = Duration.ofSeconds(10);
+	/** Added to the longest a send can take (slot wait plus producer delivery timeout) when awaiting it. */
+	private Duration sendTimeoutMargin = Duration.ofSeconds(5);
+	/** Attempts after which an event is sent to the topic's DLQ and dropped. */
+	private Integer maxAttempts = 10;
+	/** Delay before the first retry, doubled on each further attempt. */
+	private Duration initialBackoff = Duration.ofSeconds(1);
+	/** Upper bound for the retry delay. */
+	private Duration maxBackoff = Duration.ofMinutes(5);
+	/** Lease of the relay lock; must exceed maxRunTime plus one batch. */
+	private Duration lockLease = Duration.ofSeconds(60);
+}
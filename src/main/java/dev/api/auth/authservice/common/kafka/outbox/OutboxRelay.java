@@ -0,0 +1,182 @@
+package dev.api.auth.authservice.common.kafka.outbox;
+
+import dev.api.auth.authservice.common.kafka.KafkaService;
+import dev.api.auth.authservice.common.lock.SchedulerLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains {@code event_outbox} to Kafka. Runs on one replica at a time (see {@link SchedulerLock}).
+ * Each batch is sent without waiting between keys, within the in-flight bound of {@link KafkaService},
+ * and then awaited; delivered events are deleted, failed ones are rescheduled with exponential
+ * backoff. The last of {@code outbox.max-attempts} goes through {@link KafkaService#send}, which moves
+ * the event to the topic's DLQ if it fails again.
+ * <p>
+ * Events sharing a key are read in id order, each one is only sent once the previous one for
+ * the key was acknowledged, and a key stays blocked while one of its events waits for a retry,
+ * so events of one aggregate are delivered in order. A send is awaited for as long as the producer
+ * may take to fail it ({@link KafkaService#maxAttemptTime()}, twice for the last attempt) plus
+ * {@code outbox.send-timeout-margin};
+ * once an event of a key fails or times out, the key's later events in the batch are not sent and
+ * are rescheduled along with it.
+ */
+@Component
+public class OutboxRelay {
+
+	private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+	private static final String LOCK_NAME = "outbox-relay";
+
+	private final OutboxEventRepository outboxRepository;
+	private final KafkaService kafkaService;
+	private final SchedulerLock schedulerLock;
+	private final OutboxProperties props;
+	private final Duration attemptTimeout;
+	private final Duration lastAttemptTimeout;
+	private final Counter relayed;
+	private final Counter failed;
+
+	public OutboxRelay(OutboxEventRepository outboxRepository,
+					   KafkaService kafkaService,
+					   SchedulerLock schedulerLock,
+					   OutboxProperties props,
+					   MeterRegistry meterRegistry) {
+		this.outboxRepository = outboxRepository;
+		this.kafkaService = kafkaService;
+		this.schedulerLock = schedulerLock;
+		this.props = props;
+		this.attemptTimeout = kafkaService.maxAttemptTime().plus(props.getSendTimeoutMargin());
+		this.lastAttemptTimeout = kafkaService.maxAttemptTime().multipliedBy(2).plus(props.getSendTimeoutMargin());
+		this.relayed = Counter.builder("outbox.relayed").register(meterRegistry);
+		this.failed = Counter.builder("outbox.failed").register(meterRegistry);
+	}
+
+	/**
+	 * Relays due events until the outbox is empty or {@code outbox.max-run-time} is spent.
+	 */
+	@Scheduled(fixedDelayString = "${outbox.poll-interval:PT1S}")
+	public void drain() {
+		if (!props.isEnabled() || !schedulerLock.tryAcquire(LOCK_NAME, props.getLockLease())) return;
+		try {
+			Instant deadline = Instant.now().plus(props.getMaxRunTime());
+			while (relayBatch() == props.getBatchSize() && Instant.now().isBefore(deadline)) {
+				// keep draining while full batches come back
+			}
+		} catch (RuntimeException e) {
+			log.error("Outbox relay run failed", e);
+		} finally {
+			schedulerLock.release(LOCK_NAME);
+		}
+	}
+
+	/**
+	 * Sends one batch of due events.
+	 *
+	 * @return the number of events read
+	 */
+	int relayBatch() {
+		List<OutboxEvent> batch = outboxRepository.findDue(Instant.now(), props.getBatchSize());
+		if (batch.isEmpty()) return 0;
+
+		Set<String> stoppedKeys = ConcurrentHashMap.newKeySet();
+		List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+		Map<String, CompletableFuture<?>> lastSendByKey = new HashMap<>();
+		for (OutboxEvent event : batch) {
+			String key = event.getMessageKey();
+			CompletableFuture<?> previous = key != null ? lastSendByKey.get(key) : null;
+			CompletableFuture<?> send = previous == null
+					? send(event)
+					// off the producer thread that completed the previous send, since a send may wait for an in-flight slot
+					: previous.thenComposeAsync(r -> stoppedKeys.contains(key)
+							? CompletableFuture.failedFuture(new CancellationException("Earlier event for key " + key + " was not delivered"))
+							: send(event));
+			sends.add(send);
+			if (key != null) lastSendByKey.put(key, send);
+		}
+
+		List<Long> delivered = new ArrayList<>(batch.size());
+		List<OutboxEvent> retries = new ArrayList<>();
+		Map<String, Instant> blockedUntil = new HashMap<>();
+		int failures = 0;
+		for (int i = 0; i < batch.size(); i++) {
+			OutboxEvent event = batch.get(i);
+			String key = event.getMessageKey();
+			if (key != null && stoppedKeys.contains(key)) {
+				// queued behind an undelivered event of its key, retried together with it
+				event.setNextAttemptAt(blockedUntil.get(key));
+				retries.add(event);
+				continue;
+			}
+			Throwable error = await(sends.get(i), isLastAttempt(event) ? lastAttemptTimeout : attemptTimeout);
+			if (error == null) {
+				delivered.add(event.getId());
+				continue;
+			}
+			// a late acknowledgement of this send must not release the rest of the key's chain
+			if (key != null) stoppedKeys.add(key);
+			reschedule(event, error);
+			retries.add(event);
+			failures++;
+			if (key != null) blockedUntil.put(key, event.getNextAttemptAt());
+		}
+
+		outboxRepository.deleteAllByIdInBatch(delivered);
+		outboxRepository.saveAll(retries);
+		relayed.increment(delivered.size());
+		failed.increment(failures);
+		return batch.size();
+	}
+
+	private CompletableFuture<?> send(OutboxEvent event) {
+		return isLastAttempt(event)
+				? kafkaService.send(event.getTopic(), event.getMessageKey(), event.getPayload(), event.getContentType())
+				: kafkaService.attempt(event.getTopic(), event.getMessageKey(), event.getPayload(), event.getContentType());
+	}
+
+	private boolean isLastAttempt(OutboxEvent event) {
+		return event.getAttempts() + 1 >= props.getMaxAttempts();
+	}
+
+	private void reschedule(OutboxEvent event, Throwable error) {
+		int attempts = event.getAttempts() + 1;
+		event.setAttempts(attempts);
+		event.setLastError(String.valueOf(error.getMessage()));
+		event.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+	}
+
+	private Duration backoff(int attempts) {
+		Duration delay = props.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+		return delay.compareTo(props.getMaxBackoff()) > 0 ? props.getMaxBackoff() : delay;
+	}
+
+	private Throwable await(CompletableFuture<?> send, Duration timeout) {
+		try {
+			send.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			return null;
+		} catch (ExecutionException e) {
+			return e.getCause();
+		} catch (TimeoutException e) {
+			return e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return e;
+		}
+	}
+}
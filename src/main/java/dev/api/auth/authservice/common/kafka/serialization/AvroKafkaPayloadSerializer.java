@@ -0,0 +1,134 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import dev.api.auth.authservice.api.users.dtos.UserDto;
+import dev.api.auth.authservice.common.kafka.KafkaMessage;
+import dev.api.auth.authservice.common.kafka.events.emails.EmailBodyPayload;
+import dev.api.auth.authservice.common.kafka.events.tokens.AccessTokenRevokedEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserCreatedEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserDeletedEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserRestoredEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserUpdatedEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact binary encoding using the Avro schema in {@code avro/kafka-message.avsc}.
+ * Records use Avro single-object encoding: a two byte marker and the 64-bit schema
+ * fingerprint precede the body, so consumers can tell schema versions apart.
+ * The schema must have a symbol for every {@link KafkaMessage.KafkaMessageType}, which is checked at startup.
+ */
+@Component
+public class AvroKafkaPayloadSerializer implements KafkaPayloadSerializer {
+
+	public static final String FORMAT = "avro";
+	private static final String SCHEMA_LOCATION = "avro/kafka-message.avsc";
+
+	private final Schema schema;
+	private final Schema typeSchema;
+	private final Schema userSchema;
+	private final Schema userEventSchema;
+	private final Schema userDeletedSchema;
+	private final Schema emailBodySchema;
+	private final Schema tokenRevokedSchema;
+	private final BinaryMessageEncoder<GenericRecord> encoder;
+
+	public AvroKafkaPayloadSerializer() {
+		try (InputStream in = new ClassPathResource(SCHEMA_LOCATION).getInputStream()) {
+			this.schema = new Schema.Parser().parse(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not load " + SCHEMA_LOCATION, e);
+		}
+		String namespace = schema.getNamespace();
+		this.typeSchema = schema.getField("type").schema();
+		this.userSchema = payloadSchema(namespace + ".User");
+		this.userEventSchema = payloadSchema(namespace + ".UserEvent");
+		this.userDeletedSchema = payloadSchema(namespace + ".UserDeleted");
+		this.emailBodySchema = payloadSchema(namespace + ".EmailBody");
+		this.tokenRevokedSchema = payloadSchema(namespace + ".TokenRevoked");
+		for (KafkaMessage.KafkaMessageType type : KafkaMessage.KafkaMessageType.values()) {
+			if (!typeSchema.hasEnumSymbol(type.name())) {
+				throw new IllegalStateException(SCHEMA_LOCATION + " has no symbol for message type " + type);
+			}
+		}
+		this.encoder = new BinaryMessageEncoder<>(GenericData.get(), schema);
+	}
+
+	@Override
+	public String format() {
+		return FORMAT;
+	}
+
+	@Override
+	public String contentType() {
+		return "avro/binary";
+	}
+
+	@Override
+	public byte[] serialize(KafkaMessage<?> message) {
+		GenericRecord record = new GenericData.Record(schema);
+		record.put("type", new GenericData.EnumSymbol(typeSchema, message.getType().name()));
+		record.put("timestamp", message.getTimestamp().toEpochMilli());
+		record.put("payload", payload(message.getPayload()));
+		try {
+			return encoder.encode(record).array();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to serialize Kafka message", e);
+		}
+	}
+
+	private GenericRecord payload(Object payload) {
+		return switch (payload) {
+			case UserDto user -> user(user);
+			case UserCreatedEvent event -> userEvent(event.user());
+			case UserUpdatedEvent event -> userEvent(event.user());
+			case UserRestoredEvent event -> userEvent(event.user());
+			case UserDeletedEvent event -> {
+				GenericRecord record = new GenericData.Record(userDeletedSchema);
+				record.put("id", event.id());
+				yield record;
+			}
+			case EmailBodyPayload email -> {
+				GenericRecord record = new GenericData.Record(emailBodySchema);
+				record.put("to", email.to());
+				record.put("subject", email.subject());
+				record.put("body", email.body());
+				yield record;
+			}
+			case AccessTokenRevokedEvent event -> {
+				GenericRecord record = new GenericData.Record(tokenRevokedSchema);
+				record.put("jti", event.jti().toString());
+				record.put("expiresAt", event.expiresAt().toEpochMilli());
+				yield record;
+			}
+			default -> throw new IllegalArgumentException("No Avro schema for payload " + payload.getClass().getName());
+		};
+	}
+
+	private GenericRecord userEvent(UserDto user) {
+		GenericRecord record = new GenericData.Record(userEventSchema);
+		record.put("user", user(user));
+		return record;
+	}
+
+	private GenericRecord user(UserDto user) {
+		GenericRecord record = new GenericData.Record(userSchema);
+		record.put("id", user.getId());
+		record.put("username", user.getUsername());
+		record.put("email", user.getEmail());
+		record.put("role", user.getRole());
+		return record;
+	}
+
+	private Schema payloadSchema(String fullName) {
+		Schema union = schema.getField("payload").schema();
+		return union.getTypes().get(union.getIndexNamed(fullName));
+	}
+}
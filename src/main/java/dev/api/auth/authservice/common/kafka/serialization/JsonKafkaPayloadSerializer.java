@@ -0,0 +1,41 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.kafka.KafkaMessage;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON encoding, as read by the existing consumers.
+ */
+@Component
+public class JsonKafkaPayloadSerializer implements KafkaPayloadSerializer {
+
+	public static final String FORMAT = "json";
+
+	private final ObjectMapper objectMapper;
+
+	public JsonKafkaPayloadSerializer(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public String format() {
+		return FORMAT;
+	}
+
+	@Override
+	public String contentType() {
+		return MediaType.APPLICATION_JSON_VALUE;
+	}
+
+	@Override
+	public byte[] serialize(KafkaMessage<?> message) {
+		try {
+			return objectMapper.writeValueAsBytes(message);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Failed to serialize Kafka message", e);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import dev.api.auth.authservice.common.kafka.KafkaMessage;
+
+/**
+ * Turns a {@link KafkaMessage} into the bytes sent to Kafka.
+ * Implementations are Spring beans, selected per topic by {@link KafkaPayloadSerializers}.
+ */
+public interface KafkaPayloadSerializer {
+
+	/**
+	 * @return the format name used in {@code KafkaTopics.FORMATS} and {@code kafka.serialization.topics}
+	 */
+	String format();
+
+	/**
+	 * @return the value of the {@code contentType} header sent with each record
+	 */
+	String contentType();
+
+	/**
+	 * @param message the message to serialize
+	 * @return the record value
+	 */
+	byte[] serialize(KafkaMessage<?> message);
+}
@@ -0,0 +1,60 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import dev.api.auth.authservice.common.kafka.events.KafkaTopics;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Picks the serializer of each topic: {@code kafka.serialization.topics.<topic>} when set,
+ * else {@link KafkaTopics#FORMATS}, else JSON. Overrides of {@link KafkaTopics#JSON_ONLY}
+ * topics to another format fail the startup.
+ */
+@Component
+@ConfigurationProperties(prefix = "kafka.serialization")
+public class KafkaPayloadSerializers implements InitializingBean {
+
+	/** Format overrides per topic, e.g. {@code kafka.serialization.topics.user-events=avro}. */
+	@Getter
+	@Setter
+	private Map<String, String> topics = new HashMap<>();
+
+	private final Map<String, KafkaPayloadSerializer> byFormat = new HashMap<>();
+
+	public KafkaPayloadSerializers(List<KafkaPayloadSerializer> serializers) {
+		for (KafkaPayloadSerializer serializer : serializers) {
+			byFormat.put(serializer.format(), serializer);
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		for (Map.Entry<String, String> override : topics.entrySet()) {
+			if (KafkaTopics.JSON_ONLY.contains(override.getKey())
+					&& !JsonKafkaPayloadSerializer.FORMAT.equalsIgnoreCase(override.getValue())) {
+				throw new IllegalStateException("Topic " + override.getKey() + " is read by JSON listeners, "
+						+ "kafka.serialization.topics." + override.getKey() + "=" + override.getValue() + " is not supported");
+			}
+		}
+	}
+
+	/**
+	 * @param topic the destination topic
+	 * @return the serializer configured for the topic
+	 */
+	public KafkaPayloadSerializer forTopic(String topic) {
+		String format = topics.getOrDefault(topic, KafkaTopics.FORMATS.getOrDefault(topic, JsonKafkaPayloadSerializer.FORMAT));
+		KafkaPayloadSerializer serializer = byFormat.get(format.toLowerCase(Locale.ROOT));
+		if (serializer == null) {
+			throw new IllegalStateException("Unknown Kafka serialization format '" + format + "' for topic " + topic);
+		}
+		return serializer;
+	}
+}
@@ -0,0 +1,64 @@
+package dev.api.auth.authservice.common.lock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lease based lock stored in the {@code scheduler_locks} table, so a scheduled job
+ * runs on a single replica at a time. A lease that is not released (crash, kill)
+ * simply expires.
+ */
+@Component
+public class SchedulerLock {
+
+	private static final String EXTEND = """
+			UPDATE scheduler_locks SET locked_until = ?, locked_by = ?
+			WHERE name = ? AND (locked_until <= ? OR locked_by = ?)
+			""";
+	private static final String CREATE = """
+			INSERT INTO scheduler_locks (name, locked_until, locked_by) VALUES (?, ?, ?)
+			ON CONFLICT (name) DO NOTHING
+			""";
+	private static final String RELEASE = """
+			UPDATE scheduler_locks SET locked_until = ? WHERE name = ? AND locked_by = ?
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String owner;
+
+	public SchedulerLock(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+	}
+
+	/**
+	 * Acquires or extends the named lease.
+	 *
+	 * @param name  the lock name
+	 * @param lease how long the lock is held unless released or extended
+	 * @return true if this instance now holds the lock
+	 */
+	public boolean tryAcquire(String name, Duration lease) {
+		Instant now = Instant.now();
+		Timestamp until = Timestamp.from(now.plus(lease));
+		if (jdbcTemplate.update(EXTEND, until, owner, name, Timestamp.from(now), owner) > 0) {
+			return true;
+		}
+		return jdbcTemplate.update(CREATE, name, until, owner) > 0;
+	}
+
+	/**
+	 * Releases the named lease if this instance holds it.
+	 *
+	 * @param name the lock name
+	 */
+	public void release(String name) {
+		jdbcTemplate.update(RELEASE, Timestamp.from(Instant.now()), name, owner);
+	}
+}
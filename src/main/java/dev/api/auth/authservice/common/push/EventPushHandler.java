@@ -0,0 +1,305 @@
+package dev.api.auth.authservice.common.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.api.auth.authservice.common.kafka.BroadcastListenerConfig;
+import dev.api.auth.authservice.common.kafka.EntityChangedEvent;
+import dev.api.auth.authservice.common.kafka.events.KafkaTopics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes committed user changes and access token revocations to subscribed services over a raw
+ * WebSocket, so they can keep near caches correct without polling.
+ * <p>
+ * Subscribers pick topics with {@code ?topics=user-events,token-revocations} (default: all of
+ * {@link #TOPICS}) and receive one JSON {@link EntityChangedEvent} per text message. Changes are
+ * collected per subscriber for {@code push.coalesce-window}; several changes of one entity within
+ * the window are sent once, as the latest. Each subscriber has a bounded send buffer: one that
+ * cannot keep up is disconnected with {@link CloseStatus#SESSION_NOT_RELIABLE} and has to drop its
+ * cache before it reconnects, since changes were lost.
+ * <p>
+ * Changes committed on any instance are read from their Kafka topics, each instance under a group of
+ * its own (see {@link BroadcastListenerConfig}) starting at the end of the topic, since subscribers
+ * only get changes made while they are connected. Changes committed by this instance are pushed
+ * right after the commit instead, and skipped when the outbox relays them to Kafka.
+ * <p>
+ * Sends run on a pool owned by the handler, not a bean, so it never replaces the application's
+ * task scheduler.
+ */
+@Component
+@ConditionalOnProperty(prefix = "push", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventPushHandler extends TextWebSocketHandler implements ConsumerSeekAware {
+
+	private static final Logger log = LoggerFactory.getLogger(EventPushHandler.class);
+
+	/** Topics that may be pushed. Email events carry message bodies and are never pushed. */
+	public static final Set<String> TOPICS = Set.of(KafkaTopics.USER_EVENTS, KafkaTopics.TOKEN_REVOCATIONS);
+
+	/** How long a local change is remembered so its Kafka copy is skipped; well above the outbox relay lag. */
+	private static final Duration PUSHED_LOCALLY_WINDOW = Duration.ofMinutes(10);
+
+	private final ObjectMapper objectMapper;
+	private final ScheduledThreadPoolExecutor executor;
+	private final PushProperties props;
+	private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+	private final Cache<String, Boolean> pushedLocally;
+	private final Counter coalesced;
+	private final Counter disconnected;
+
+	public EventPushHandler(ObjectMapper objectMapper,
+							PushProperties props,
+							MeterRegistry meterRegistry) {
+		this.objectMapper = objectMapper;
+		this.props = props;
+		this.executor = new ScheduledThreadPoolExecutor(props.getThreads(), new CustomizableThreadFactory("event-push-"));
+		this.executor.setRemoveOnCancelPolicy(true);
+		this.pushedLocally = Caffeine.newBuilder()
+				.expireAfterWrite(PUSHED_LOCALLY_WINDOW)
+				.maximumSize(100_000)
+				.build();
+		this.coalesced = Counter.builder("push.coalesced")
+				.description("Changes replaced by a later change of the same entity before they were sent")
+				.register(meterRegistry);
+		this.disconnected = Counter.builder("push.disconnected")
+				.description("Subscribers disconnected because they fell behind")
+				.register(meterRegistry);
+		Gauge.builder("push.subscribers", subscribers, Map::size)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Stops the send pool on shutdown.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	@Override
+	public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+		Set<String> topics = TOPICS;
+		if (session.getUri() != null) {
+			List<String> requested = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().get("topics");
+			if (requested != null) {
+				topics = requested.stream()
+						.flatMap(value -> Arrays.stream(value.split(",")))
+						.map(String::trim)
+						.filter(topic -> !topic.isEmpty())
+						.collect(Collectors.toUnmodifiableSet());
+				if (!TOPICS.containsAll(topics)) {
+					session.close(CloseStatus.POLICY_VIOLATION.withReason("Topics must be among " + TOPICS));
+					return;
+				}
+			}
+		}
+		WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session,
+				Math.toIntExact(props.getSendTimeLimit().toMillis()), props.getBufferSizeLimit(),
+				ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+		subscribers.put(session.getId(), new Subscriber(decorated, topics));
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+		subscribers.remove(session.getId());
+	}
+
+	/**
+	 * Queues a change committed by this instance for every subscriber of its topic. Serializes once
+	 * and returns without sending, so the committing thread never waits for a subscriber.
+	 *
+	 * @param event the committed change
+	 */
+	@TransactionalEventListener
+	public void onEntityChanged(EntityChangedEvent event) {
+		if (!TOPICS.contains(event.topic())) {
+			return;
+		}
+		pushedLocally.put(changeId(event.topic(), event.key(), event.timestamp()), Boolean.TRUE);
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		TextMessage message;
+		try {
+			message = new TextMessage(objectMapper.writeValueAsString(event));
+		} catch (JsonProcessingException e) {
+			log.warn("Could not serialize {} event for key {}", event.topic(), event.key(), e);
+			return;
+		}
+		offer(event.topic(), event.key(), message);
+	}
+
+	/**
+	 * Queues a change committed by any instance, unless this instance pushed it already. The message
+	 * is sent in the shape of an {@link EntityChangedEvent}, like local changes.
+	 *
+	 * @param record a JSON encoded {@link dev.api.auth.authservice.common.kafka.KafkaMessage}
+	 */
+	@KafkaListener(topics = {KafkaTopics.USER_EVENTS, KafkaTopics.TOKEN_REVOCATIONS},
+			groupId = "${spring.application.name:authservice}-push-${kafka.instance-id}",
+			containerFactory = BroadcastListenerConfig.CONTAINER_FACTORY)
+	public void onRecord(ConsumerRecord<String, String> record) {
+		if (subscribers.isEmpty() || !isJson(record)) {
+			return;
+		}
+		try {
+			JsonNode kafkaMessage = objectMapper.readTree(record.value());
+			Instant timestamp = objectMapper.treeToValue(kafkaMessage.path("timestamp"), Instant.class);
+			if (pushedLocally.asMap().remove(changeId(record.topic(), record.key(), timestamp)) != null) {
+				return;
+			}
+			ObjectNode event = objectMapper.createObjectNode()
+					.put("topic", record.topic())
+					.put("key", record.key());
+			event.set("type", kafkaMessage.path("type"));
+			event.set("timestamp", kafkaMessage.path("timestamp"));
+			event.set("payload", kafkaMessage.path("payload"));
+			offer(record.topic(), record.key(), new TextMessage(objectMapper.writeValueAsString(event)));
+		} catch (JsonProcessingException e) {
+			log.warn("Ignoring malformed {} record with key {}", record.topic(), record.key(), e);
+		}
+	}
+
+	/**
+	 * Subscribers only get changes made while they are connected, so nothing older is read.
+	 */
+	@Override
+	public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+		callback.seekToEnd(assignments.keySet());
+	}
+
+	private void offer(String topic, String key, TextMessage message) {
+		String entity = topic + ':' + key;
+		for (Subscriber subscriber : subscribers.values()) {
+			if (subscriber.topics.contains(topic)) {
+				subscriber.offer(entity, message);
+			}
+		}
+	}
+
+	private static String changeId(String topic, String key, Instant timestamp) {
+		return topic + ':' + key + '@' + timestamp;
+	}
+
+	private static boolean isJson(ConsumerRecord<String, String> record) {
+		Header contentType = record.headers().lastHeader(MessageHeaders.CONTENT_TYPE);
+		if (contentType == null) {
+			return true;
+		}
+		try {
+			return MediaType.parseMediaType(new String(contentType.value(), StandardCharsets.UTF_8))
+					.isCompatibleWith(MediaType.APPLICATION_JSON);
+		} catch (InvalidMediaTypeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Pending changes of one subscriber, keyed by entity in first-change order.
+	 */
+	private final class Subscriber {
+
+		private final WebSocketSession session;
+		private final Set<String> topics;
+		private final LinkedHashMap<String, TextMessage> pending = new LinkedHashMap<>();
+		private boolean flushScheduled;
+
+		private Subscriber(WebSocketSession session, Set<String> topics) {
+			this.session = session;
+			this.topics = topics;
+		}
+
+		private void offer(String entity, TextMessage message) {
+			synchronized (this) {
+				if (pending.put(entity, message) != null) {
+					coalesced.increment();
+				}
+				if (pending.size() > props.getMaxPending()) {
+					pending.clear();
+					disconnect();
+					return;
+				}
+				if (flushScheduled) {
+					return;
+				}
+				flushScheduled = true;
+			}
+			try {
+				executor.schedule(this::flush, props.getCoalesceWindow().toNanos(), TimeUnit.NANOSECONDS);
+			} catch (RejectedExecutionException e) {
+				// shutting down
+			}
+		}
+
+		private void flush() {
+			List<TextMessage> batch;
+			synchronized (this) {
+				batch = new ArrayList<>(pending.values());
+				pending.clear();
+				flushScheduled = false;
+			}
+			try {
+				for (TextMessage message : batch) {
+					session.sendMessage(message);
+				}
+			} catch (IOException | RuntimeException e) {
+				log.debug("Push to subscriber {} failed", session.getId(), e);
+				disconnect();
+			}
+		}
+
+		private void disconnect() {
+			if (subscribers.remove(session.getId()) == null) {
+				return;
+			}
+			disconnected.increment();
+			try {
+				session.close(CloseStatus.SESSION_NOT_RELIABLE);
+			} catch (IOException ignored) {
+				// already gone
+			}
+		}
+	}
+}
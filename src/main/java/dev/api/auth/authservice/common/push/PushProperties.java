@@ -0,0 +1,29 @@
+package dev.api.auth.authservice.common.push;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "push")
+public class PushProperties {
+	/** Whether the WebSocket push endpoint is registered. */
+	private boolean enabled = true;
+	/** Path of the WebSocket endpoint. */
+	private String path = "/ws/events";
+	/** How long changes are collected per subscriber before they are sent; repeated changes of one entity within it are sent once. */
+	private Duration coalesceWindow = Duration.ofMillis(100);
+	/** Distinct entities that may await sending to one subscriber; a subscriber falling further behind is disconnected. */
+	private Integer maxPending = 10_000;
+	/** Longest a single send may take before the subscriber is disconnected. */
+	private Duration sendTimeLimit = Duration.ofSeconds(10);
+	/** Bytes that may be buffered for one subscriber while a send is in progress before it is disconnected. */
+	private Integer bufferSizeLimit = 512 * 1024;
+	/** Threads sending to subscribers. */
+	private Integer threads = 2;
+}
@@ -0,0 +1,30 @@
+package dev.api.auth.authservice.common.push;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the push endpoint. The handshake passes through the security filter chain,
+ * which only admits API key clients (see {@code SecurityConfig}).
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(prefix = "push", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WebSocketConfig implements WebSocketConfigurer {
+
+	private final EventPushHandler eventPushHandler;
+	private final PushProperties props;
+
+	public WebSocketConfig(EventPushHandler eventPushHandler, PushProperties props) {
+		this.eventPushHandler = eventPushHandler;
+		this.props = props;
+	}
+
+	@Override
+	public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+		registry.addHandler(eventPushHandler, props.getPath());
+	}
+}
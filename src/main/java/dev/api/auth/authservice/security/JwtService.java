@@ -1,13 +1,15 @@
 package dev.api.auth.authservice.security;
 
 import dev.api.auth.authservice.api.users.User;
+import dev.api.auth.authservice.security.keys.KeyRing;
+import dev.api.auth.authservice.security.keys.SigningKey;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service for generating and validating JWT tokens.
@@ -16,27 +18,47 @@ import java.util.Map;
 public class JwtService {
 
 	private final long EXPIRATION;
-	private final Key key;
+	private final KeyRing keyRing;
+	private final JwtParser parser;
 
-	public JwtService(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration}") long expiration) {
-		this.key = Keys.hmacShaKeyFor(secret.getBytes());
+	public JwtService(KeyRing keyRing, @Value("${jwt.expiration}") long expiration) {
+		this.keyRing = keyRing;
 		this.EXPIRATION = expiration;
+		this.parser = Jwts.parserBuilder()
+				.setSigningKeyResolver(new SigningKeyResolverAdapter() {
+					@Override
+					public Key resolveSigningKey(JwsHeader header, Claims claims) {
+						Key key = keyRing.verificationKey(header.getKeyId());
+						if (key == null) {
+							throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+						}
+						return key;
+					}
+				})
+				.build();
 	}
 
 	/**
 	 * Generates a JWT token with the given subject and claims.
+	 * Every token gets a random {@code jti}, by which it can be revoked before it expires.
 	 *
 	 * @param subject the subject (typically the username)
 	 * @param claims  additional claims to include in the token
 	 * @return the generated JWT token
 	 */
 	public String generateAccessToken(String subject, Map<String, Object> claims) {
-		return Jwts.builder()
+		SigningKey signingKey = keyRing.active();
+		JwtBuilder builder = Jwts.builder();
+		if (signingKey.kid() != null) {
+			builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid());
+		}
+		return builder
 				.setClaims(claims)
 				.setSubject(subject)
+				.setId(UUID.randomUUID().toString())
 				.setIssuedAt(new Date())
 				.setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-				.signWith(key, SignatureAlgorithm.HS256)
+				.signWith(signingKey.signingKey(), signingKey.algorithm())
 				.compact();
 	}
 
@@ -48,10 +70,18 @@ public class JwtService {
 	 * @throws JwtException if the token is invalid or expired
 	 */
 	public Jws<Claims> parseToken(String token) throws JwtException {
-		return Jwts.parserBuilder()
-				.setSigningKey(key)
-				.build()
-				.parseClaimsJws(token);
+		return parser.parseClaimsJws(token);
+	}
+
+	/**
+	 * Verifies the given JWT token once and extracts the claims used for authentication.
+	 *
+	 * @param token the JWT token to verify
+	 * @return the verified token
+	 * @throws JwtException if the token is invalid or expired
+	 */
+	public VerifiedToken verify(String token) throws JwtException {
+		return VerifiedToken.from(parseToken(token).getBody());
 	}
 
 	/**
@@ -60,14 +90,21 @@ public class JwtService {
 	 * @return map containing JWT token
 	 */
 	public Map<String, String> mapUserClaimsToToken(User user) {
-		Map<String, Object> claims = Map.of(
+		String token = generateAccessToken(user.getEmail(), userClaims(user));
+		return Map.of("access_token", token);
+	}
+
+	/**
+	 * Build the access token claims for a user
+	 * @param user - user entity
+	 * @return map containing the claims
+	 */
+	public Map<String, Object> userClaims(User user) {
+		return Map.of(
 				"id", user.getId(),
 				"username", user.getUsername(),
 				"role", user.getRole()
 		);
-
-		String token = generateAccessToken(user.getEmail(), claims);
-		return Map.of("access_token", token);
 	}
 
 	/**
@@ -2,9 +2,16 @@ package dev.api.auth.authservice.security;
 
 import dev.api.auth.authservice.common.filter.AuditContextFilter;
 import dev.api.auth.authservice.common.filter.RequestLoggingFilter;
+import dev.api.auth.authservice.common.filter.accesslog.AccessLog;
+import dev.api.auth.authservice.common.filter.accesslog.AccessLogProperties;
+import dev.api.auth.authservice.security.hashing.BoundedPasswordEncoder;
+import dev.api.auth.authservice.security.hashing.HashingProperties;
+import dev.api.auth.authservice.security.hashing.PasswordProperties;
 import dev.api.auth.authservice.security.guards.ApiKeyAuthenticationFilter;
 import dev.api.auth.authservice.security.guards.CompositeAuthenticationFilter;
 import dev.api.auth.authservice.security.guards.JwtAuthenticationFilter;
+import dev.api.auth.authservice.security.revocation.AccessTokenRevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,11 +19,16 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 /**
  * Security configuration class for setting up authentication and authorization.
  */
@@ -34,13 +46,17 @@ public class SecurityConfig {
 
 	@Bean
 	public SecurityFilterChain filterChain(HttpSecurity http,
-										   CompositeAuthenticationFilter compositeAuthenticationFilter) throws Exception {
+										   CompositeAuthenticationFilter compositeAuthenticationFilter,
+										   RequestLoggingFilter requestLoggingFilter) throws Exception {
 		return http
 				.csrf(AbstractHttpConfigurer::disable)
 				.authorizeHttpRequests(auth -> auth
+						.requestMatchers("/auth/sessions/**").authenticated()
+						.requestMatchers("/ws/**").hasRole("API")
 						.requestMatchers(
 								"/auth/**",
 								"/healthcheck",
+								"/.well-known/**",
 								"/v3/api-docs/**",
 								"/api-docs/**",
 								"/api-docs.yaml",
@@ -54,7 +70,7 @@ public class SecurityConfig {
 						.authenticationEntryPoint(entryPoint)
 						.accessDeniedHandler(deniedHandler)
 				)
-				.addFilterBefore(requestLoggingFilter(), UsernamePasswordAuthenticationFilter.class)
+				.addFilterBefore(requestLoggingFilter, UsernamePasswordAuthenticationFilter.class)
 				.addFilterBefore(compositeAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
 				.addFilterAfter(auditContextFilter(), UsernamePasswordAuthenticationFilter.class)
 				.build();
@@ -65,9 +81,29 @@ public class SecurityConfig {
 		return config.getAuthenticationManager();
 	}
 
-	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	@Bean(destroyMethod = "shutdown")
+	public BoundedPasswordEncoder passwordEncoder(HashingProperties hashingProperties,
+												  PasswordProperties passwordProperties,
+												  MeterRegistry meterRegistry) {
+		return new BoundedPasswordEncoder(
+				delegatingPasswordEncoder(passwordProperties), hashingProperties, meterRegistry);
+	}
+
+	/**
+	 * Hashes are stored as {@code {id}hash}; hashes without a prefix predate it and are BCrypt.
+	 */
+	static PasswordEncoder delegatingPasswordEncoder(PasswordProperties props) {
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(props.getBcryptStrength());
+		Map<String, PasswordEncoder> encoders = Map.of(
+				"bcrypt", bcrypt,
+				"pbkdf2", new Pbkdf2PasswordEncoder("", 16, props.getPbkdf2Iterations(),
+						Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256),
+				"argon2", new Argon2PasswordEncoder(16, 32, props.getArgon2Parallelism(),
+						props.getArgon2Memory(), props.getArgon2Iterations())
+		);
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(props.getAlgorithm(), encoders);
+		delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+		return delegating;
 	}
 
 	@Bean
@@ -76,8 +112,8 @@ public class SecurityConfig {
 	}
 
 	@Bean
-	public RequestLoggingFilter requestLoggingFilter() {
-		return new RequestLoggingFilter();
+	public RequestLoggingFilter requestLoggingFilter(AccessLog accessLog, AccessLogProperties accessLogProperties) {
+		return new RequestLoggingFilter(accessLog, accessLogProperties);
 	}
 
 	@Bean
@@ -88,8 +124,9 @@ public class SecurityConfig {
 	}
 
 	@Bean
-	public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService) {
-		return new JwtAuthenticationFilter(jwtService);
+	public JwtAuthenticationFilter jwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+														   AccessTokenRevocationList revocationList) {
+		return new JwtAuthenticationFilter(verifiedTokenCache, revocationList);
 	}
 
 	@Bean
@@ -0,0 +1,37 @@
+package dev.api.auth.authservice.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable result of a single signature verification of an access token.
+ *
+ * @param subject   the token subject (the user's email)
+ * @param id        the user id claim
+ * @param username  the username claim
+ * @param role      the role claim, without the {@code ROLE_} prefix
+ * @param expiresAt the token expiration
+ * @param jti       the token id, null for tokens issued before ids were added
+ */
+public record VerifiedToken(String subject, Long id, String username, String role, Instant expiresAt, UUID jti) {
+
+	/**
+	 * Builds a verified token from claims that have already passed signature validation.
+	 *
+	 * @param claims - verified claims
+	 * @return the verified token
+	 */
+	public static VerifiedToken from(Claims claims) {
+		Number id = claims.get("id", Number.class);
+		return new VerifiedToken(
+				claims.getSubject(),
+				id != null ? id.longValue() : null,
+				claims.get("username", String.class),
+				claims.get("role", String.class),
+				claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+				claims.getId() != null ? UUID.fromString(claims.getId()) : null
+		);
+	}
+}
@@ -0,0 +1,121 @@
+package dev.api.auth.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Size-bounded cache of already verified access tokens, keyed by a 128-bit digest of the raw token.
+ * Entries never outlive the token's {@code exp} claim.
+ * <p>
+ * A cached entry only stands for a valid signature, which revocation does not change, so entries
+ * are never evicted early: a token is revoked solely through
+ * {@link dev.api.auth.authservice.security.revocation.AccessTokenRevocationList}, which
+ * {@link dev.api.auth.authservice.security.guards.JwtAuthenticationFilter} checks on every request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	/**
+	 * A verified token together with the authorities granted by it.
+	 */
+	public record CachedAuthentication(VerifiedToken token, List<GrantedAuthority> authorities) {}
+
+	private record TokenDigest(long high, long low) {}
+
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private final JwtService jwtService;
+	private final boolean enabled;
+	private final Cache<TokenDigest, CachedAuthentication> cache;
+
+	public VerifiedTokenCache(JwtService jwtService,
+							  MeterRegistry meterRegistry,
+							  @Value("${jwt.cache.enabled:true}") boolean enabled,
+							  @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+							  @Value("${jwt.cache.max-ttl:PT1H}") Duration maxTtl) {
+		this.jwtService = jwtService;
+		this.enabled = enabled;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new TokenExpiry(maxTtl))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+	}
+
+	/**
+	 * Returns the verified token and its authorities, verifying the signature only on a cache miss.
+	 *
+	 * @param token the raw JWT token
+	 * @return the cached authentication
+	 * @throws JwtException if the token is invalid or expired
+	 */
+	public CachedAuthentication resolve(String token) throws JwtException {
+		if (!enabled) {
+			return load(token);
+		}
+		return cache.get(digest(token), key -> load(token));
+	}
+
+	private CachedAuthentication load(String token) {
+		VerifiedToken verified = jwtService.verify(token);
+		return new CachedAuthentication(verified, List.of(new SimpleGrantedAuthority("ROLE_" + verified.role())));
+	}
+
+	private static TokenDigest digest(String token) {
+		MessageDigest md = SHA_256.get();
+		ByteBuffer hash = ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		return new TokenDigest(hash.getLong(), hash.getLong());
+	}
+
+	/**
+	 * Expires entries at the token's {@code exp}, capped by the configured maximum TTL.
+	 */
+	private record TokenExpiry(Duration maxTtl) implements Expiry<TokenDigest, CachedAuthentication> {
+
+		@Override
+		public long expireAfterCreate(TokenDigest key, CachedAuthentication value, long currentTime) {
+			Instant expiresAt = value.token().expiresAt();
+			if (expiresAt == null) {
+				return maxTtl.toNanos();
+			}
+			Duration remaining = Duration.between(Instant.now(), expiresAt);
+			if (remaining.isNegative()) {
+				return 0;
+			}
+			return Math.min(remaining.toNanos(), maxTtl.toNanos());
+		}
+
+		@Override
+		public long expireAfterUpdate(TokenDigest key, CachedAuthentication value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		@Override
+		public long expireAfterRead(TokenDigest key, CachedAuthentication value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -1,35 +1,35 @@
 package dev.api.auth.authservice.security.guards;
 
-import dev.api.auth.authservice.security.JwtService;
-import io.jsonwebtoken.Claims;
+import dev.api.auth.authservice.security.VerifiedTokenCache;
+import dev.api.auth.authservice.security.revocation.AccessTokenRevocationList;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 /**
  * JWT Authentication Filter that validates JWT tokens in the Authorization header.
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-	private final JwtService jwtService;
+	private final VerifiedTokenCache tokenCache;
+	private final AccessTokenRevocationList revocationList;
 
-	public JwtAuthenticationFilter(JwtService jwtService) {
-		this.jwtService = jwtService;
+	public JwtAuthenticationFilter(VerifiedTokenCache tokenCache, AccessTokenRevocationList revocationList) {
+		this.tokenCache = tokenCache;
+		this.revocationList = revocationList;
 	}
 
 	/**
 	 * Extracts and validates the JWT token from the Authorization header.
-	 * If valid, sets the authentication in the SecurityContext.
+	 * If valid and not revoked, sets the authentication in the SecurityContext.
 	 */
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
@@ -39,14 +39,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		if (authHeader != null && authHeader.startsWith("Bearer ")) {
 			String token = authHeader.substring(7);
 			try {
-				String subject = jwtService.getSubject(token);
-				Claims claims = jwtService.getAllClaims(token);
-				String roleFromClaims = claims.get("role", String.class);
-				var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + roleFromClaims));
-				var auth = new UsernamePasswordAuthenticationToken(subject, null, authorities);
-				auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-				SecurityContextHolder.getContext().setAuthentication(auth);
+				var cached = tokenCache.resolve(token);
+				if (revocationList.isRevoked(cached.token().jti())) {
+					SecurityContextHolder.clearContext();
+				} else {
+					var auth = new UsernamePasswordAuthenticationToken(cached.token().subject(), null, cached.authorities());
+					auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+					SecurityContextHolder.getContext().setAuthentication(auth);
+				}
 			} catch (Exception ignored) {
 				SecurityContextHolder.clearContext();
 			}
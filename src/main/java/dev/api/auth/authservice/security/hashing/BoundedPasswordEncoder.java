@@ -0,0 +1,137 @@
+package dev.api.auth.authservice.security.hashing;
+
+import dev.api.auth.authservice.common.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Password encoder that runs the delegate on a dedicated, bounded hashing pool.
+ * When the pool queue is full, callers fail fast with a {@link ServiceUnavailableException}
+ * instead of holding a request thread while waiting for CPU.
+ * The pool is owned by the encoder and is not a bean, so it never stands in for the
+ * application task executor; {@link #shutdown()} stops it.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final HashingProperties props;
+	private final Timer waitTimer;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Counter rejected;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate,
+								  HashingProperties props,
+								  MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.executor = new ThreadPoolExecutor(
+				props.getThreads(), props.getThreads(),
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(props.getQueueCapacity()),
+				new CustomizableThreadFactory("password-hashing-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.props = props;
+		this.waitTimer = Timer.builder("auth.hashing.wait")
+				.description("Time a hashing request spent queued")
+				.register(meterRegistry);
+		this.encodeTimer = Timer.builder("auth.hashing.duration")
+				.tag("operation", "encode")
+				.register(meterRegistry);
+		this.matchesTimer = Timer.builder("auth.hashing.duration")
+				.tag("operation", "matches")
+				.register(meterRegistry);
+		this.rejected = Counter.builder("auth.hashing.rejected")
+				.description("Hashing requests rejected because the queue was full")
+				.register(meterRegistry);
+		Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+				.register(meterRegistry);
+		Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(encodeTimer, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	/**
+	 * Hashes in the background without waiting for the result.
+	 *
+	 * @param rawPassword the password to hash
+	 * @param onEncoded   callback run on the hashing thread with the new hash
+	 * @return false if the pool is saturated and the work was dropped
+	 */
+	public boolean encodeAsync(CharSequence rawPassword, Consumer<String> onEncoded) {
+		try {
+			executor.execute(() -> onEncoded.accept(encodeTimer.record(() -> delegate.encode(rawPassword))));
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Stops the hashing pool; queued hashes still complete.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> T run(Timer hashTimer, Callable<T> task) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+				try {
+					return task.call();
+				} finally {
+					hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new ServiceUnavailableException("Password hashing capacity exhausted", props.getRetryAfter());
+		}
+
+		try {
+			return future.get(props.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new ServiceUnavailableException("Password hashing timed out", props.getRetryAfter());
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while hashing password", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+			throw new IllegalStateException("Password hashing failed", e.getCause());
+		}
+	}
+}
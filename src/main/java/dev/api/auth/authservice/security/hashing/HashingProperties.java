@@ -0,0 +1,23 @@
+package dev.api.auth.authservice.security.hashing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "auth.hashing")
+public class HashingProperties {
+	/** Threads dedicated to password hashing. */
+	private Integer threads = Runtime.getRuntime().availableProcessors();
+	/** Hashing requests allowed to wait for a thread before callers are rejected. */
+	private Integer queueCapacity = 64;
+	/** Maximum time a caller waits for its hash, queueing included. */
+	private Duration timeout = Duration.ofSeconds(10);
+	/** Value of the Retry-After header sent when hashing capacity is exhausted. */
+	private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,61 @@
+package dev.api.auth.authservice.security.hashing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Benchmark mode: measures BCrypt on the current hardware and reports the cost factor that reaches
+ * {@code auth.password.calibration-target}. Enabled with {@code auth.password.calibrate=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.password.calibrate", havingValue = "true")
+public class PasswordCostCalibrator implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordCostCalibrator.class);
+	private static final int MIN_STRENGTH = 4;
+	private static final int MAX_STRENGTH = 16;
+	private static final int SAMPLES = 5;
+
+	private final PasswordProperties props;
+
+	public PasswordCostCalibrator(PasswordProperties props) {
+		this.props = props;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Duration target = props.getCalibrationTarget();
+		int recommended = MIN_STRENGTH;
+		for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+			Duration median = measure(strength);
+			log.info("BCrypt cost {} takes {} ms per hash", strength, median.toMillis());
+			if (median.compareTo(target) > 0) {
+				break;
+			}
+			recommended = strength;
+		}
+		log.info("Recommended auth.password.bcrypt-strength={} for a {} ms target (configured: {})",
+				recommended, target.toMillis(), props.getBcryptStrength());
+	}
+
+	private Duration measure(int strength) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+		encoder.encode("warm-up");
+		long[] samples = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			encoder.encode("calibration-password");
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return Duration.ofNanos(samples[SAMPLES / 2]);
+	}
+}
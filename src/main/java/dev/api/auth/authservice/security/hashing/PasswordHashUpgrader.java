@@ -0,0 +1,56 @@
+package dev.api.auth.authservice.security.hashing;
+
+import dev.api.auth.authservice.api.users.User;
+import dev.api.auth.authservice.api.users.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rehashes passwords stored with an outdated algorithm or cost after a successful login.
+ */
+@Component
+public class PasswordHashUpgrader {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordHashUpgrader.class);
+
+	private final BoundedPasswordEncoder passwordEncoder;
+	private final UserRepository userRepository;
+	private final PasswordProperties props;
+
+	public PasswordHashUpgrader(BoundedPasswordEncoder passwordEncoder,
+								UserRepository userRepository,
+								PasswordProperties props) {
+		this.passwordEncoder = passwordEncoder;
+		this.userRepository = userRepository;
+		this.props = props;
+	}
+
+	/**
+	 * Schedules a rehash if the stored hash is outdated. Never blocks the caller; the work is skipped
+	 * when the hashing pool is saturated and retried on a later login.
+	 *
+	 * @param user        the authenticated user
+	 * @param rawPassword the password that just matched
+	 */
+	public void upgradeIfNeeded(User user, String rawPassword) {
+		if (!props.getUpgradeOnLogin()) return;
+		String currentHash = user.getPasswordHash();
+		if (!passwordEncoder.upgradeEncoding(currentHash)) return;
+
+		Long userId = user.getId();
+		boolean accepted = passwordEncoder.encodeAsync(rawPassword, newHash -> {
+			try {
+				// Only replace the hash we verified, so a concurrent password change wins.
+				if (userRepository.upgradePasswordHash(userId, currentHash, newHash) == 1) {
+					log.debug("Upgraded password hash for user {}", userId);
+				}
+			} catch (RuntimeException e) {
+				log.warn("Failed to upgrade password hash for user {}", userId, e);
+			}
+		});
+		if (!accepted) {
+			log.debug("Hashing pool saturated, deferring password hash upgrade for user {}", userId);
+		}
+	}
+}
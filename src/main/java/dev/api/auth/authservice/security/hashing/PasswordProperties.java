@@ -0,0 +1,27 @@
+package dev.api.auth.authservice.security.hashing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordProperties {
+	/** Algorithm id used for new hashes: bcrypt, argon2 or pbkdf2. */
+	private String algorithm = "bcrypt";
+	private Integer bcryptStrength = 10;
+	private Integer pbkdf2Iterations = 310000;
+	private Integer argon2Memory = 1 << 14;
+	private Integer argon2Iterations = 2;
+	private Integer argon2Parallelism = 1;
+	/** Rehash outdated hashes after a successful login. */
+	private Boolean upgradeOnLogin = true;
+	/** Measure BCrypt costs at startup and log the one closest to calibration-target. */
+	private Boolean calibrate = false;
+	private Duration calibrationTarget = Duration.ofMillis(250);
+}
@@ -0,0 +1,40 @@
+package dev.api.auth.authservice.security.keys;
+
+import dev.api.auth.authservice.common.advice.SkipResponseFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+
+@RestController
+@SkipResponseFormat
+@Tag(name = "Keys", description = "Public signing keys")
+public class JwksController {
+
+	private final KeyRing keyRing;
+	private final JwtKeyProperties props;
+
+	public JwksController(KeyRing keyRing, JwtKeyProperties props) {
+		this.keyRing = keyRing;
+		this.props = props;
+	}
+
+	@GetMapping("/.well-known/jwks.json")
+	@Operation(summary = "JSON Web Key Set", description = "Public keys resource servers use to verify access tokens")
+	public ResponseEntity<Map<String, Object>> jwks(WebRequest request) {
+		String etag = keyRing.jwksEtag();
+		CacheControl cacheControl = CacheControl.maxAge(props.getJwksMaxAge()).cachePublic();
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(304).eTag(etag).cacheControl(cacheControl).build();
+		}
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(cacheControl)
+				.body(keyRing.jwks());
+	}
+}
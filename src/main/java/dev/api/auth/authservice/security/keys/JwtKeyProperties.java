@@ -0,0 +1,43 @@
+package dev.api.auth.authservice.security.keys;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jwt.keys")
+public class JwtKeyProperties {
+	/** Directory holding {@code <kid>.key} (PKCS#8) and {@code <kid>.pub} (X.509) PEM files. Empty keeps HS256. */
+	private String dir = "";
+	/** How often the directory is rescanned for added or removed keys. */
+	private Duration reloadInterval = Duration.ofMinutes(5);
+	/**
+	 * How long a new key is only published in the JWKS before it is used for signing. Must cover
+	 * {@code reloadInterval} plus {@code jwksMaxAge}, so every replica and every resource server knows
+	 * the key before the first token signed with it shows up; checked at startup.
+	 */
+	private Duration activationDelay = Duration.ofMinutes(20);
+	/**
+	 * Age after which a new key pair is generated into the directory. Zero disables generation.
+	 * Generated keys are deleted once the key that replaced them has signed for one token lifetime.
+	 */
+	private Duration rotationPeriod = Duration.ZERO;
+	/** Lease of the lock under which one replica generates and deletes keys. */
+	private Duration lockLease = Duration.ofMinutes(1);
+	/** Algorithm family for generated keys: RS256 or ES256. */
+	private String algorithm = "RS256";
+	/** Max-age advertised on the JWKS endpoint. */
+	private Duration jwksMaxAge = Duration.ofMinutes(15);
+	/**
+	 * Until when tokens signed with {@code jwt.secret} (no {@code kid}) are accepted while asymmetric
+	 * keys sign. Unset rejects them as soon as an asymmetric key signs; set it to the switch-over
+	 * plus one token lifetime when moving off HS256.
+	 */
+	private Instant legacyAcceptedUntil;
+}
@@ -0,0 +1,324 @@
+package dev.api.auth.authservice.security.keys;
+
+import dev.api.auth.authservice.common.lock.SchedulerLock;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Holds the keys used to sign and verify access tokens.
+ * Asymmetric keys are loaded from {@code jwt.keys.dir}; the newest active key signs, every loaded key verifies.
+ * The shared {@code jwt.secret} signs while the directory holds no key and verifies tokens issued without
+ * a {@code kid} until {@code jwt.keys.legacy-accepted-until}.
+ * <p>
+ * With {@code jwt.keys.rotation-period} set, the directory is shared by all replicas and managed by
+ * whichever holds the {@link SchedulerLock}: it generates one key per period and deletes keys whose
+ * successor has been signing for longer than a token lives.
+ */
+@Component
+public class KeyRing {
+
+	private static final Logger log = LoggerFactory.getLogger(KeyRing.class);
+	private static final String LOCK_NAME = "jwt-key-rotation";
+	private static final DateTimeFormatter KID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+	private record Snapshot(SigningKey active, Map<String, SigningKey> keys, Map<String, Object> jwks, String etag) {}
+
+	private final JwtKeyProperties props;
+	private final SchedulerLock schedulerLock;
+	private final Duration tokenLifetime;
+	private final SigningKey legacyKey;
+	private volatile Snapshot snapshot;
+
+	public KeyRing(JwtKeyProperties props,
+				   SchedulerLock schedulerLock,
+				   @Value("${jwt.secret}") String secret,
+				   @Value("${jwt.expiration}") long expiration) {
+		this.props = props;
+		this.schedulerLock = schedulerLock;
+		this.tokenLifetime = Duration.ofMillis(expiration);
+		Key hmac = Keys.hmacShaKeyFor(secret.getBytes());
+		this.legacyKey = new SigningKey(null, SignatureAlgorithm.HS256, hmac, hmac, Instant.EPOCH);
+		if (!props.getDir().isBlank()
+				&& props.getActivationDelay().compareTo(props.getReloadInterval().plus(props.getJwksMaxAge())) < 0) {
+			throw new IllegalStateException("jwt.keys.activation-delay (" + props.getActivationDelay()
+					+ ") must be at least jwt.keys.reload-interval plus jwt.keys.jwks-max-age ("
+					+ props.getReloadInterval().plus(props.getJwksMaxAge()) + "), or replicas and resource servers"
+					+ " may see tokens signed with a key they do not know yet");
+		}
+		try {
+			manageKeys();
+			this.snapshot = load();
+		} catch (IOException | GeneralSecurityException e) {
+			throw new IllegalStateException("Could not load signing keys from " + props.getDir(), e);
+		}
+	}
+
+	/**
+	 * Returns the key currently used to sign new tokens.
+	 *
+	 * @return the active signing key
+	 */
+	public SigningKey active() {
+		return snapshot.active();
+	}
+
+	/**
+	 * Returns the key able to verify a token carrying the given {@code kid} header.
+	 *
+	 * @param kid the key id, or null for tokens signed with the shared secret
+	 * @return the verification key, or null if the kid is unknown or the shared secret is no longer accepted
+	 */
+	public Key verificationKey(String kid) {
+		if (kid == null) {
+			Instant legacyUntil = props.getLegacyAcceptedUntil();
+			boolean accepted = snapshot.active() == legacyKey || (legacyUntil != null && Instant.now().isBefore(legacyUntil));
+			return accepted ? legacyKey.verificationKey() : null;
+		}
+		SigningKey key = snapshot.keys().get(kid);
+		return key != null ? key.verificationKey() : null;
+	}
+
+	/**
+	 * Returns the JWK Set document with every publishable key.
+	 *
+	 * @return the JWKS members
+	 */
+	public Map<String, Object> jwks() {
+		return snapshot.jwks();
+	}
+
+	/**
+	 * Returns a strong ETag identifying the current JWK Set.
+	 *
+	 * @return the quoted ETag value
+	 */
+	public String jwksEtag() {
+		return snapshot.etag();
+	}
+
+	/**
+	 * Rescans the key directory, first generating a new key pair when rotation is due and deleting
+	 * retired keys. A failed reload keeps the previous keys.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.keys.reload-interval:PT5M}", initialDelayString = "${jwt.keys.reload-interval:PT5M}")
+	public void reload() {
+		if (props.getDir().isBlank()) return;
+		try {
+			manageKeys();
+			snapshot = load();
+		} catch (IOException | GeneralSecurityException e) {
+			log.error("Failed to reload signing keys from {}", props.getDir(), e);
+		}
+	}
+
+	private Snapshot load() throws IOException, GeneralSecurityException {
+		if (props.getDir().isBlank()) {
+			return new Snapshot(legacyKey, Map.of(), Map.of("keys", List.of()), etag(List.of()));
+		}
+		Path dir = Path.of(props.getDir());
+		List<SigningKey> loaded = new ArrayList<>();
+		for (Path file : listKeyFiles(dir)) {
+			loaded.add(read(dir, file));
+		}
+		if (loaded.isEmpty()) {
+			log.warn("No signing keys found in {}, falling back to HS256 with jwt.secret", dir);
+			return new Snapshot(legacyKey, Map.of(), Map.of("keys", List.of()), etag(List.of()));
+		}
+		loaded.sort(Comparator.comparing(SigningKey::activeFrom));
+
+		Instant now = Instant.now();
+		SigningKey active = loaded.getFirst();
+		Map<String, SigningKey> byKid = new LinkedHashMap<>();
+		for (SigningKey key : loaded) {
+			byKid.put(key.kid(), key);
+			if (!key.activeFrom().isAfter(now)) active = key;
+		}
+		List<Map<String, Object>> jwks = loaded.stream()
+				.filter(SigningKey::isPublishable)
+				.map(SigningKey::toPublicJwk)
+				.toList();
+		return new Snapshot(active, Map.copyOf(byKid), Map.of("keys", jwks), etag(jwks));
+	}
+
+	private SigningKey read(Path dir, Path keyFile) throws IOException, GeneralSecurityException {
+		String name = keyFile.getFileName().toString();
+		String kid = name.substring(0, name.length() - ".key".length());
+		Path pubFile = dir.resolve(kid + ".pub");
+		if (!Files.exists(pubFile)) {
+			throw new GeneralSecurityException("Missing public key " + pubFile);
+		}
+		byte[] privateDer = decodePem(Files.readString(keyFile));
+		byte[] publicDer = decodePem(Files.readString(pubFile));
+		String family = privateKeyAlgorithm(privateDer);
+		KeyFactory factory = KeyFactory.getInstance(family);
+		PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(privateDer));
+		PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(publicDer));
+		Instant activeFrom = Files.getLastModifiedTime(keyFile).toInstant().plus(props.getActivationDelay());
+		return new SigningKey(kid, SignatureAlgorithm.forSigningKey(privateKey), privateKey, publicKey, activeFrom);
+	}
+
+	/**
+	 * Generates and prunes keys on the replica holding the lock. The directory is re-read under the
+	 * lock, so a key another replica generated moments ago is seen and not generated again.
+	 */
+	private void manageKeys() throws IOException, GeneralSecurityException {
+		if (props.getDir().isBlank() || !props.getRotationPeriod().isPositive()) return;
+		if (!schedulerLock.tryAcquire(LOCK_NAME, props.getLockLease())) return;
+		try {
+			Path dir = Path.of(props.getDir());
+			rotateIfDue(dir);
+			pruneRetired(dir);
+		} finally {
+			schedulerLock.release(LOCK_NAME);
+		}
+	}
+
+	private void rotateIfDue(Path dir) throws IOException, GeneralSecurityException {
+		Instant newest = Instant.EPOCH;
+		for (Path file : listKeyFiles(dir)) {
+			Instant modified = Files.getLastModifiedTime(file).toInstant();
+			if (modified.isAfter(newest)) newest = modified;
+		}
+		if (newest.plus(props.getRotationPeriod()).isBefore(Instant.now())) {
+			generate(dir);
+		}
+	}
+
+	/**
+	 * Deletes every key whose successor became active more than one token lifetime ago: no unexpired
+	 * token can carry its kid any more.
+	 */
+	private void pruneRetired(Path dir) throws IOException {
+		record KeyFile(Path path, Instant modified) {}
+		List<KeyFile> keyFiles = new ArrayList<>();
+		for (Path file : listKeyFiles(dir)) {
+			keyFiles.add(new KeyFile(file, Files.getLastModifiedTime(file).toInstant()));
+		}
+		keyFiles.sort(Comparator.comparing(KeyFile::modified));
+
+		Instant now = Instant.now();
+		for (int i = 0; i + 1 < keyFiles.size(); i++) {
+			Instant retiredAt = keyFiles.get(i + 1).modified().plus(props.getActivationDelay());
+			if (!retiredAt.plus(tokenLifetime).isBefore(now)) break;
+			String name = keyFiles.get(i).path().getFileName().toString();
+			String kid = name.substring(0, name.length() - ".key".length());
+			Files.deleteIfExists(keyFiles.get(i).path());
+			Files.deleteIfExists(dir.resolve(kid + ".pub"));
+			log.info("Deleted retired signing key {}", kid);
+		}
+	}
+
+	private void generate(Path dir) throws IOException, GeneralSecurityException {
+		KeyPairGenerator generator;
+		if (props.getAlgorithm().toUpperCase().startsWith("ES")) {
+			generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+		} else {
+			generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+		}
+		KeyPair pair = generator.generateKeyPair();
+		String kid = KID_FORMAT.format(Instant.now());
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve(kid + ".pub"), encodePem("PUBLIC KEY", pair.getPublic().getEncoded()));
+		writePrivate(dir.resolve(kid + ".key"), encodePem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+		log.info("Generated new {} signing key {}", pair.getPublic().getAlgorithm(), kid);
+	}
+
+	/**
+	 * Writes a private key readable by its owner only, where the file system supports POSIX permissions.
+	 * The key is written under a temporary name and moved into place, so no replica ever loads a
+	 * half-written or still world-readable file.
+	 */
+	private static void writePrivate(Path keyFile, String pem) throws IOException {
+		Path tmp = keyFile.resolveSibling(keyFile.getFileName() + ".tmp");
+		Files.deleteIfExists(tmp);
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			Files.createFile(tmp, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+		} else {
+			Files.createFile(tmp);
+		}
+		Files.writeString(tmp, pem);
+		Files.move(tmp, keyFile, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static List<Path> listKeyFiles(Path dir) throws IOException {
+		if (!Files.isDirectory(dir)) return List.of();
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(f -> f.getFileName().toString().endsWith(".key")).sorted().toList();
+		}
+	}
+
+	private static String privateKeyAlgorithm(byte[] der) throws GeneralSecurityException {
+		for (String family : List.of("RSA", "EC")) {
+			try {
+				KeyFactory.getInstance(family).generatePrivate(new PKCS8EncodedKeySpec(der));
+				return family;
+			} catch (GeneralSecurityException ignored) {
+				// try next family
+			}
+		}
+		throw new GeneralSecurityException("Unsupported private key type, expected RSA or EC");
+	}
+
+	private static byte[] decodePem(String pem) {
+		String body = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+		return Base64.getDecoder().decode(body);
+	}
+
+	private static String encodePem(String type, byte[] der) {
+		return "-----BEGIN " + type + "-----\n"
+				+ Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+				+ "\n-----END " + type + "-----\n";
+	}
+
+	private static String etag(List<Map<String, Object>> jwks) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(jwks.toString().getBytes(StandardCharsets.UTF_8));
+			return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
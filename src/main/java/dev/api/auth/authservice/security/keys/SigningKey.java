@@ -0,0 +1,75 @@
+package dev.api.auth.authservice.security.keys;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A key used to sign access tokens, identified by the {@code kid} header.
+ *
+ * @param kid             key id written to the token header
+ * @param algorithm       signature algorithm
+ * @param signingKey      private (or shared secret) key used to sign
+ * @param verificationKey public (or shared secret) key used to verify
+ * @param activeFrom      instant from which the key may be used for signing
+ */
+public record SigningKey(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey, Instant activeFrom) {
+
+	/**
+	 * Whether the key can be published to resource servers.
+	 *
+	 * @return true for asymmetric keys
+	 */
+	public boolean isPublishable() {
+		return verificationKey instanceof PublicKey;
+	}
+
+	/**
+	 * Builds the public JWK (RFC 7517) representation of this key.
+	 *
+	 * @return the JWK members
+	 */
+	public Map<String, Object> toPublicJwk() {
+		Map<String, Object> jwk = new LinkedHashMap<>();
+		if (verificationKey instanceof RSAPublicKey rsa) {
+			jwk.put("kty", "RSA");
+			jwk.put("n", base64Url(rsa.getModulus(), 0));
+			jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+		} else if (verificationKey instanceof ECPublicKey ec) {
+			int fieldSize = ec.getParams().getCurve().getField().getFieldSize();
+			int length = (fieldSize + 7) / 8;
+			jwk.put("kty", "EC");
+			jwk.put("crv", switch (fieldSize) {
+				case 256 -> "P-256";
+				case 384 -> "P-384";
+				case 521 -> "P-521";
+				default -> throw new IllegalStateException("Unsupported EC curve size: " + fieldSize);
+			});
+			jwk.put("x", base64Url(ec.getW().getAffineX(), length));
+			jwk.put("y", base64Url(ec.getW().getAffineY(), length));
+		} else {
+			throw new IllegalStateException("Key " + kid + " is not publishable");
+		}
+		jwk.put("use", "sig");
+		jwk.put("alg", algorithm.getValue());
+		jwk.put("kid", kid);
+		return jwk;
+	}
+
+	private static String base64Url(BigInteger value, int length) {
+		byte[] bytes = value.toByteArray();
+		int offset = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+		int size = Math.max(bytes.length - offset, length);
+		byte[] out = new byte[size];
+		System.arraycopy(bytes, offset, out, size - (bytes.length - offset), bytes.length - offset);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(out);
+	}
+}
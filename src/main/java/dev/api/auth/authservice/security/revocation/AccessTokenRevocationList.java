@@ -0,0 +1,272 @@
+package dev.api.auth.authservice.security.revocation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.kafka.BroadcastListenerConfig;
+import dev.api.auth.authservice.common.kafka.EntityEventPublisher;
+import dev.api.auth.authservice.common.kafka.KafkaMessage;
+import dev.api.auth.authservice.common.kafka.events.KafkaTopics;
+import dev.api.auth.authservice.common.kafka.events.tokens.AccessTokenRevokedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before their {@code exp}, by {@code jti}.
+ * <p>
+ * Every replica holds the unexpired part of {@code revoked_access_tokens} in memory: a Bloom filter
+ * answers almost every check with "not revoked", and only its positives are confirmed against the
+ * exact set, so a check costs a few hashes and never a query. Revocations are written to the table
+ * and, through the outbox, to {@link KafkaTopics#TOKEN_REVOCATIONS}, which every replica consumes
+ * from shortly before its last load onwards (see {@link BroadcastListenerConfig}). The list is
+ * reloaded from the table every {@code jwt.revocation.rebuild-interval}, which drops expired tokens
+ * from the filter, resizes it, and catches up on events a replica may have missed.
+ * <p>
+ * The filter is also published as a binary snapshot for resource servers, see {@link #snapshot()}.
+ */
+@Component
+public class AccessTokenRevocationList implements ConsumerSeekAware {
+
+	private static final Logger log = LoggerFactory.getLogger(AccessTokenRevocationList.class);
+
+	/** Snapshot header: magic, format, hashes, bits. */
+	private static final int SNAPSHOT_MAGIC = 0x4A544942; // "JTIB"
+	private static final int SNAPSHOT_FORMAT = 2;
+	private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 4 + 8;
+	/** Events are replayed from this long before the last load, covering clock skew between instances. */
+	private static final Duration REPLAY_MARGIN = Duration.ofMinutes(1);
+
+	private static final String INSERT = """
+			INSERT INTO revoked_access_tokens (id, expires_at) VALUES (?, ?)
+			ON CONFLICT (id) DO NOTHING
+			""";
+	private static final String SELECT_LIVE = "SELECT id, expires_at FROM revoked_access_tokens WHERE expires_at > ?";
+
+	/**
+	 * The serialized filter.
+	 *
+	 * @param etag  strong ETag derived from the bytes, so equal filters have equal tags on every replica
+	 * @param bytes the snapshot
+	 */
+	public record Snapshot(String etag, byte[] bytes) {}
+
+	private record CachedSnapshot(long version, Snapshot snapshot) {}
+
+	private record State(BloomFilter filter, Map<UUID, Instant> revoked, long version) {}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityEventPublisher eventPublisher;
+	private final ObjectMapper objectMapper;
+	private final AccessTokenRevocationProperties props;
+	private final Counter falsePositives;
+	private final Object writeLock = new Object();
+	private volatile State state;
+	private volatile CachedSnapshot snapshot;
+	private volatile Instant loadedFrom;
+
+	public AccessTokenRevocationList(JdbcTemplate jdbcTemplate,
+									 EntityEventPublisher eventPublisher,
+									 ObjectMapper objectMapper,
+									 AccessTokenRevocationProperties props,
+									 MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
+		this.objectMapper = objectMapper;
+		this.props = props;
+		this.falsePositives = Counter.builder("jwt.revocation.false_positives")
+				.description("Filter hits the exact set did not confirm")
+				.register(meterRegistry);
+		Instant loadStart = Instant.now();
+		this.state = build(load(loadStart), 1);
+		this.loadedFrom = loadStart;
+		Gauge.builder("jwt.revocation.size", this, list -> list.state.revoked().size())
+				.description("Revoked access tokens held in memory")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @param jti the token id, null for tokens issued before ids were added
+	 * @return true if the token was revoked
+	 */
+	public boolean isRevoked(UUID jti) {
+		if (jti == null || !props.isEnabled()) {
+			return false;
+		}
+		State current = state;
+		if (!current.filter().mightContain(jti)) {
+			return false;
+		}
+		if (current.revoked().containsKey(jti)) {
+			return true;
+		}
+		falsePositives.increment();
+		return false;
+	}
+
+	/**
+	 * Revokes an access token on this replica right away and on the others once the outbox relays the event.
+	 *
+	 * @param jti       the token id
+	 * @param expiresAt the token's {@code exp}; the revocation is forgotten afterwards
+	 */
+	@Transactional
+	public void revoke(UUID jti, Instant expiresAt) {
+		if (!expiresAt.isAfter(Instant.now())) {
+			return;
+		}
+		jdbcTemplate.update(INSERT, jti, Timestamp.from(expiresAt));
+		eventPublisher.publishEvent(KafkaTopics.TOKEN_REVOCATIONS, jti.toString(),
+				KafkaMessage.KafkaMessageType.REVOKE_TOKEN, new AccessTokenRevokedEvent(jti, expiresAt));
+		apply(jti, expiresAt);
+	}
+
+	/**
+	 * Applies revocations made on any replica, including this one. The topic cannot be switched
+	 * to another format (see {@link KafkaTopics#JSON_ONLY}).
+	 *
+	 * @param message the JSON encoded {@link KafkaMessage} of an {@link AccessTokenRevokedEvent}
+	 */
+	@KafkaListener(topics = KafkaTopics.TOKEN_REVOCATIONS,
+			groupId = "${spring.application.name:authservice}-revocations-${kafka.instance-id}",
+			containerFactory = BroadcastListenerConfig.CONTAINER_FACTORY,
+			autoStartup = "${jwt.revocation.enabled:true}")
+	public void onRevoked(String message) {
+		try {
+			JsonNode payload = objectMapper.readTree(message).path("payload");
+			AccessTokenRevokedEvent event = objectMapper.treeToValue(payload, AccessTokenRevokedEvent.class);
+			if (event.jti() != null && event.expiresAt() != null && event.expiresAt().isAfter(Instant.now())) {
+				apply(event.jti(), event.expiresAt());
+			}
+		} catch (Exception e) {
+			log.warn("Ignoring malformed token revocation event", e);
+		}
+	}
+
+	/**
+	 * Everything committed before the last load is already in memory, so only events produced
+	 * after it are read. Offsets are never committed, this runs on every assignment.
+	 */
+	@Override
+	public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+		callback.seekToTimestamp(assignments.keySet(), loadedFrom.minus(REPLAY_MARGIN).toEpochMilli());
+	}
+
+	/**
+	 * Reloads the list from the database into a freshly sized filter, keeping revocations
+	 * applied while the query ran.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:PT10M}", initialDelayString = "${jwt.revocation.rebuild-interval:PT10M}")
+	public void rebuild() {
+		Instant loadStart = Instant.now();
+		Map<UUID, Instant> loaded;
+		try {
+			loaded = load(loadStart);
+		} catch (RuntimeException e) {
+			log.error("Reloading revoked access tokens failed, keeping the current list", e);
+			return;
+		}
+		synchronized (writeLock) {
+			Instant now = Instant.now();
+			state.revoked().forEach((jti, expiresAt) -> {
+				if (expiresAt.isAfter(now)) loaded.putIfAbsent(jti, expiresAt);
+			});
+			state = build(loaded, state.version() + 1);
+		}
+		loadedFrom = loadStart;
+	}
+
+	/**
+	 * Serializes the current filter. All numbers are big-endian:
+	 * <pre>
+	 * int   magic 0x4A544942 ("JTIB")
+	 * int   format, currently 2
+	 * int   number of hash functions
+	 * long  number of bits
+	 * long[ceil(bits / 64)] the bit array
+	 * </pre>
+	 * See {@link BloomFilter} for the bit positions of an id. A positive only means "probably revoked".
+	 * The snapshot carries no replica-specific data, so replicas holding the same filter serve the
+	 * same bytes under the same ETag.
+	 *
+	 * @return the snapshot, serialized once per change
+	 */
+	public Snapshot snapshot() {
+		CachedSnapshot cached = snapshot;
+		if (cached != null && cached.version() == state.version()) {
+			return cached.snapshot();
+		}
+		synchronized (writeLock) {
+			State current = state;
+			BloomFilter filter = current.filter();
+			ByteBuffer out = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + filter.byteSize());
+			out.putInt(SNAPSHOT_MAGIC)
+					.putInt(SNAPSHOT_FORMAT)
+					.putInt(filter.hashes())
+					.putLong(filter.bits());
+			filter.writeTo(out);
+			byte[] bytes = out.array();
+			Snapshot serialized = new Snapshot(etag(bytes), bytes);
+			snapshot = new CachedSnapshot(current.version(), serialized);
+			return serialized;
+		}
+	}
+
+	private void apply(UUID jti, Instant expiresAt) {
+		synchronized (writeLock) {
+			State current = state;
+			if (current.revoked().putIfAbsent(jti, expiresAt) != null) {
+				return;
+			}
+			current.filter().put(jti);
+			state = new State(current.filter(), current.revoked(), current.version() + 1);
+		}
+	}
+
+	private static String etag(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Map<UUID, Instant> load(Instant now) {
+		Map<UUID, Instant> loaded = new ConcurrentHashMap<>();
+		jdbcTemplate.query(SELECT_LIVE, rs -> {
+			loaded.put(rs.getObject("id", UUID.class), rs.getTimestamp("expires_at").toInstant());
+		}, Timestamp.from(now));
+		return loaded;
+	}
+
+	/**
+	 * Sizes the filter for twice the current entries, so it stays within its false positive rate
+	 * until the next rebuild unless revocations more than double in between.
+	 */
+	private State build(Map<UUID, Instant> revoked, long version) {
+		BloomFilter filter = BloomFilter.create(
+				Math.max(props.getExpectedInsertions(), 2L * revoked.size()), props.getFalsePositiveRate());
+		revoked.keySet().forEach(filter::put);
+		return new State(filter, revoked, version);
+	}
+}
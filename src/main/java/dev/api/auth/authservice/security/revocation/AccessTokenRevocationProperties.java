@@ -0,0 +1,25 @@
+package dev.api.auth.authservice.security.revocation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jwt.revocation")
+public class AccessTokenRevocationProperties {
+	/** Whether access tokens are checked against the revocation list. Revocations are recorded either way. */
+	private boolean enabled = true;
+	/** Revoked, unexpired tokens the filter is sized for; it grows when a rebuild finds more. */
+	private long expectedInsertions = 100_000;
+	/** False positive rate of the filter at {@link #expectedInsertions} entries. */
+	private double falsePositiveRate = 0.001;
+	/** How often the list is reloaded from the database, dropping expired tokens and catching up on missed events. */
+	private Duration rebuildInterval = Duration.ofMinutes(10);
+	/** Max-age advertised on the snapshot endpoint. */
+	private Duration snapshotMaxAge = Duration.ofSeconds(30);
+}
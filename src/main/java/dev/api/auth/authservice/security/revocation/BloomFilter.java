@@ -0,0 +1,107 @@
+package dev.api.auth.authservice.security.revocation;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over token ids. Lookups are lock free and allocation free; adds may run concurrently.
+ * <p>
+ * Bit positions are {@code (h1 + i * h2) mod bits} for {@code i < hashes}, with
+ * {@code h1 = fmix64(msb)}, {@code h2 = fmix64(lsb) | 1}, where {@code fmix64} is the MurmurHash3
+ * 64-bit finalizer and the mod is floor-mod on signed longs. Bit {@code n} is bit {@code n % 64}
+ * of word {@code n / 64}. Resource servers reading the snapshot must use the same scheme.
+ */
+public final class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final long bits;
+	private final int hashes;
+
+	private BloomFilter(long bits, int hashes) {
+		this.bits = bits;
+		this.hashes = hashes;
+		this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+	}
+
+	/**
+	 * Sizes a filter for the expected number of entries and false positive rate.
+	 *
+	 * @param expectedInsertions entries the filter should hold at the given rate
+	 * @param falsePositiveRate  probability that an absent id is reported present
+	 * @return an empty filter
+	 */
+	public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+		long n = Math.max(1, expectedInsertions);
+		long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+		int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+		return new BloomFilter(bits, hashes);
+	}
+
+	public long bits() {
+		return bits;
+	}
+
+	public int hashes() {
+		return hashes;
+	}
+
+	/**
+	 * @param id the token id
+	 */
+	public void put(UUID id) {
+		long h1 = fmix64(id.getMostSignificantBits());
+		long h2 = fmix64(id.getLeastSignificantBits()) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bits);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			if ((words.get(word) & mask) == 0) {
+				words.getAndUpdate(word, w -> w | mask);
+			}
+		}
+	}
+
+	/**
+	 * @param id the token id
+	 * @return false if the id was never added, true if it probably was
+	 */
+	public boolean mightContain(UUID id) {
+		long h1 = fmix64(id.getMostSignificantBits());
+		long h2 = fmix64(id.getLeastSignificantBits()) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bits);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the bit array as big-endian longs.
+	 *
+	 * @param out buffer with room for {@link #byteSize()} bytes
+	 */
+	public void writeTo(ByteBuffer out) {
+		for (int i = 0; i < words.length(); i++) {
+			out.putLong(words.get(i));
+		}
+	}
+
+	/**
+	 * @return size of the bit array in bytes
+	 */
+	public int byteSize() {
+		return words.length() * Long.BYTES;
+	}
+
+	private static long fmix64(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+}
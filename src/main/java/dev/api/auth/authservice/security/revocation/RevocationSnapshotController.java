@@ -0,0 +1,41 @@
+package dev.api.auth.authservice.security.revocation;
+
+import dev.api.auth.authservice.common.advice.SkipResponseFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@SkipResponseFormat
+@Tag(name = "Revocations", description = "Revoked access tokens")
+public class RevocationSnapshotController {
+
+	private final AccessTokenRevocationList revocationList;
+	private final AccessTokenRevocationProperties props;
+
+	public RevocationSnapshotController(AccessTokenRevocationList revocationList, AccessTokenRevocationProperties props) {
+		this.revocationList = revocationList;
+		this.props = props;
+	}
+
+	@GetMapping(value = "/.well-known/revoked-tokens", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	@Operation(summary = "Revoked access tokens",
+			description = "Bloom filter of the jti of every revoked, unexpired access token; see AccessTokenRevocationList#snapshot for the format")
+	public ResponseEntity<byte[]> revokedTokens(WebRequest request) {
+		AccessTokenRevocationList.Snapshot snapshot = revocationList.snapshot();
+		String etag = snapshot.etag();
+		CacheControl cacheControl = CacheControl.maxAge(props.getSnapshotMaxAge()).cachePublic();
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(304).eTag(etag).cacheControl(cacheControl).build();
+		}
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(cacheControl)
+				.body(snapshot.bytes());
+	}
+}
@@ -0,0 +1,181 @@
+package dev.api.auth.authservice.api.auth;
+
+import dev.api.auth.authservice.api.auth.entities.IssuedTokens;
+import dev.api.auth.authservice.api.auth.entities.RefreshToken;
+import dev.api.auth.authservice.api.auth.entities.RotatedToken;
+import dev.api.auth.authservice.api.auth.utils.TokenUtils;
+import dev.api.auth.authservice.common.exceptions.InvalidTokenException;
+import dev.api.auth.authservice.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the rotation flow against a repository mock that keeps its rows in a list and applies the
+ * same conditions as the rotate and revoke statements.
+ */
+class RefreshTokenServiceTests {
+
+	private static final Duration TTL = Duration.ofDays(30);
+
+	private final List<RefreshToken> rows = new ArrayList<>();
+	private final TokenUtils tokenUtils = new TokenUtils("pepper");
+	private RefreshTokenRepository repo;
+	private RefreshTokenCache cache;
+	private RefreshTokenService service;
+
+	private void setUp(boolean cacheEnabled) {
+		repo = mock(RefreshTokenRepository.class);
+		when(repo.save(any())).thenAnswer(inv -> {
+			rows.add(inv.getArgument(0));
+			return inv.getArgument(0);
+		});
+		when(repo.rotate(any(), any(), any(), any())).thenAnswer(inv -> rotate(
+				inv.getArgument(0), inv.getArgument(1), inv.getArgument(2), inv.getArgument(3)));
+		when(repo.findByTokenHash(any())).thenAnswer(inv -> find(inv.getArgument(0)));
+		when(repo.revokeFamily(any())).thenAnswer(inv -> {
+			UUID familyId = inv.getArgument(0);
+			List<RefreshToken> live = rows.stream().filter(t -> t.getFamilyId().equals(familyId) && !t.isRevoked()).toList();
+			live.forEach(t -> t.setRevoked(true));
+			return live.size();
+		});
+		JwtService jwtService = mock(JwtService.class);
+		when(jwtService.generateAccessToken(anyString(), anyMap())).thenReturn("access");
+
+		cache = new RefreshTokenCache(new SimpleMeterRegistry(), cacheEnabled, 1_000, 1_000, TTL);
+		service = new RefreshTokenService(repo, tokenUtils, jwtService, cache, TTL, 32);
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@ParameterizedTest(name = "cache enabled: {0}")
+	@ValueSource(booleans = {true, false})
+	void refreshRotatesWithinTheFamily(boolean cacheEnabled) {
+		setUp(cacheEnabled);
+		IssuedTokens first = login();
+
+		IssuedTokens second = service.refresh(first.refreshToken(), "web", Map.of());
+
+		assertThat(second.refreshToken()).isNotEqualTo(first.refreshToken());
+		assertThat(row(second).getFamilyId()).isEqualTo(first.refreshJti());
+		assertThat(row(first).isRevoked()).isTrue();
+		assertThat(row(first).getReplacedByJti()).isEqualTo(second.refreshJti());
+		assertThat(row(second).isRevoked()).isFalse();
+	}
+
+	@ParameterizedTest(name = "cache enabled: {0}")
+	@ValueSource(booleans = {true, false})
+	void replayRevokesTheFamilyAndNothingElse(boolean cacheEnabled) {
+		setUp(cacheEnabled);
+		IssuedTokens stolen = login();
+		IssuedTokens rotated = service.refresh(stolen.refreshToken(), "web", Map.of());
+		IssuedTokens otherSession = login();
+
+		assertThatThrownBy(() -> service.refresh(stolen.refreshToken(), "web", Map.of()))
+				.isInstanceOf(InvalidTokenException.class);
+
+		verify(repo).revokeFamily(stolen.refreshJti());
+		assertThat(row(rotated).isRevoked()).isTrue();
+		assertThatThrownBy(() -> service.refresh(rotated.refreshToken(), "web", Map.of()))
+				.isInstanceOf(InvalidTokenException.class);
+		assertThat(service.refresh(otherSession.refreshToken(), "web", Map.of()).refreshToken()).isNotNull();
+	}
+
+	@Test
+	void furtherReplaysOfADeniedFamilyDoNotRevokeItAgain() {
+		setUp(true);
+		IssuedTokens stolen = login();
+		service.refresh(stolen.refreshToken(), "web", Map.of());
+
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> service.refresh(stolen.refreshToken(), "web", Map.of()))
+					.isInstanceOf(InvalidTokenException.class);
+		}
+
+		verify(repo, times(1)).revokeFamily(stolen.refreshJti());
+	}
+
+	@Test
+	void cacheIsOnlyWrittenOnceTheTransactionCommits() {
+		setUp(true);
+		TransactionSynchronizationManager.initSynchronization();
+		IssuedTokens rolledBack = login();
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		TransactionSynchronizationManager.initSynchronization();
+		IssuedTokens committed = login();
+		IssuedTokens rotated = service.refresh(committed.refreshToken(), "web", Map.of());
+		assertThat(cache.get(tokenUtils.digestToken(committed.refreshToken()))).isNull();
+		assertThat(cache.get(tokenUtils.digestToken(rotated.refreshToken()))).isNull();
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertThat(cache.get(tokenUtils.digestToken(rolledBack.refreshToken()))).isNull();
+		assertThat(cache.get(tokenUtils.digestToken(committed.refreshToken())))
+				.extracting(RefreshTokenCache.Entry::jti, RefreshTokenCache.Entry::revoked)
+				.containsExactly(committed.refreshJti(), true);
+		assertThat(cache.get(tokenUtils.digestToken(rotated.refreshToken())))
+				.extracting(RefreshTokenCache.Entry::jti, RefreshTokenCache.Entry::revoked)
+				.containsExactly(rotated.refreshJti(), false);
+	}
+
+	private IssuedTokens login() {
+		return service.createTokensForUser(1L, "user@example.com", Map.of(), "web", "10.0.0.1", "test");
+	}
+
+	private static void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		}
+		synchronizations.forEach(s -> s.afterCompletion(status));
+	}
+
+	private RefreshToken row(IssuedTokens tokens) {
+		return rows.stream().filter(t -> t.getJti().equals(tokens.refreshJti())).findFirst().orElseThrow();
+	}
+
+	private Optional<RefreshToken> find(byte[] hash) {
+		return rows.stream().filter(t -> Arrays.equals(t.getTokenHash(), hash)).findFirst();
+	}
+
+	private Optional<RotatedToken> rotate(byte[] hash, String clientId, UUID replacedByJti, Instant now) {
+		return find(hash)
+				.filter(t -> !t.isRevoked() && t.getExpiresAt().isAfter(now))
+				.filter(t -> clientId == null || clientId.equals(t.getClientId()))
+				.map(t -> {
+					t.setRevoked(true);
+					t.setRevokedAt(now);
+					t.setReplacedByJti(replacedByJti);
+					return new RotatedToken(t.getJti(), t.getFamilyId(), t.getUserId(), t.getUserEmail(), t.getClientId(), t.getExpiresAt());
+				});
+	}
+}
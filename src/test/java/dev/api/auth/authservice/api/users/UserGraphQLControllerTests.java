@@ -0,0 +1,150 @@
+package dev.api.auth.authservice.api.users;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.kafka.EntityEventPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.graphql.AutoConfigureGraphQl;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs GraphQL queries against the controller, the real {@link UserService} and an in-memory database.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureGraphQl
+@AutoConfigureGraphQlTester
+@Import({UserGraphQLController.class, UserService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserGraphQLControllerTests {
+
+	@SpringBootApplication(scanBasePackages = "none")
+	@EntityScan(basePackageClasses = User.class)
+	@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+	static class TestApplication {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+	}
+
+	@Autowired
+	private GraphQlTester graphQlTester;
+
+	@MockitoSpyBean
+	private UserRepository userRepository;
+
+	@MockitoBean
+	private PasswordEncoder passwordEncoder;
+
+	@MockitoBean
+	private EntityEventPublisher eventPublisher;
+
+	private List<Long> ids;
+
+	@BeforeEach
+	void createUsers() {
+		ids = userRepository.saveAll(List.of(
+				new User("alice", "alice@example.com", "hash", "USER"),
+				new User("bob", "bob@example.com", "hash", "USER"),
+				new User("carol", "carol@example.com", "hash", "ADMIN"),
+				new User("dave", "dave@example.com", "hash", "USER"),
+				new User("erin", "erin@example.com", "hash", "USER")
+		)).stream().map(User::getId).toList();
+	}
+
+	@AfterEach
+	void deleteUsers() {
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void usersOfOneQueryAreLoadedInOneBatch() {
+		graphQlTester.document("""
+						query($a: ID!, $b: ID!, $c: ID!) {
+						  a: user(id: $a) { id username }
+						  b: user(id: $b) { id username }
+						  c: user(id: $c) { id username }
+						}""")
+				.variable("a", ids.get(0))
+				.variable("b", ids.get(1))
+				.variable("c", ids.get(2))
+				.execute()
+				.path("a.username").entity(String.class).isEqualTo("alice")
+				.path("b.username").entity(String.class).isEqualTo("bob")
+				.path("c.username").entity(String.class).isEqualTo("carol");
+
+		ArgumentCaptor<Collection<Long>> batch = ArgumentCaptor.captor();
+		verify(userRepository, times(1)).findDtosByIdIn(batch.capture());
+		assertThat(batch.getValue()).containsExactlyInAnyOrderElementsOf(ids.subList(0, 3));
+	}
+
+	@Test
+	void allUsersSkipsDeletedUsersWhateverTheSelection() {
+		userRepository.delete(userRepository.findById(ids.get(1)).orElseThrow());
+
+		graphQlTester.document("{ allUsers { id username email role } }").execute()
+				.path("allUsers[*].username").entityList(String.class)
+				.containsExactly("alice", "carol", "dave", "erin");
+		graphQlTester.document("{ allUsers { username } }").execute()
+				.path("allUsers[*].username").entityList(String.class)
+				.containsExactly("alice", "carol", "dave", "erin");
+	}
+
+	@Test
+	void usersConnectionWalksPagesWithTheEndCursor() {
+		String document = """
+				query($after: String) {
+				  usersConnection(first: 3, after: $after, sortBy: "username", direction: "DESC") {
+				    edges { node { username } cursor }
+				    pageInfo { hasNextPage hasPreviousPage endCursor }
+				  }
+				}""";
+
+		GraphQlTester.Response first = graphQlTester.document(document).execute();
+		first.path("usersConnection.edges[*].node.username").entityList(String.class)
+				.containsExactly("erin", "dave", "carol");
+		first.path("usersConnection.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+		first.path("usersConnection.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(false);
+		String endCursor = first.path("usersConnection.pageInfo.endCursor").entity(String.class).get();
+
+		GraphQlTester.Response second = graphQlTester.document(document).variable("after", endCursor).execute();
+		second.path("usersConnection.edges[*].node.username").entityList(String.class)
+				.containsExactly("bob", "alice");
+		second.path("usersConnection.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+		second.path("usersConnection.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+	}
+}
@@ -0,0 +1,86 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTests {
+
+	private static final Map<String, Class<?>> FIELDS = Map.of(
+			"id", Long.class,
+			"username", String.class
+	);
+
+	@Test
+	void firstDefaultsToAscendingById() {
+		KeysetCursor cursor = KeysetCursor.first(null, null, FIELDS);
+
+		assertThat(cursor.sort()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+		assertThat(cursor.position()).isEqualTo(ScrollPosition.keyset());
+	}
+
+	@Test
+	void sortAppendsIdTiebreakerInTheSameDirection() {
+		KeysetCursor cursor = KeysetCursor.first("username", "desc", FIELDS);
+
+		assertThat(cursor.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "username", "id"));
+	}
+
+	@Test
+	void encodeDecodeRoundTripsKeysWithTheirTypes() {
+		KeysetCursor next = KeysetCursor.first("username", "DESC", FIELDS)
+				.next(ScrollPosition.forward(Map.of("username", "bob", "id", 42L)));
+
+		KeysetCursor decoded = KeysetCursor.decode(next.encode(), FIELDS);
+
+		assertThat(decoded.sortBy()).isEqualTo("username");
+		assertThat(decoded.direction()).isEqualTo(Sort.Direction.DESC);
+		assertThat(((KeysetScrollPosition) decoded.position()).getKeys())
+				.containsExactlyInAnyOrderEntriesOf(Map.of("username", "bob", "id", 42L));
+	}
+
+	@Test
+	void decodeAcceptsIdOnlyCursor() {
+		KeysetCursor decoded = KeysetCursor.decode(token("{\"s\":\"id\",\"d\":\"ASC\",\"k\":{\"id\":7}}"), FIELDS);
+
+		assertThat(decoded.keys()).containsExactly(Map.entry("id", 7L));
+	}
+
+	@Test
+	void decodeRejectsMalformedTokens() {
+		assertBadRequest("not base64!");
+		assertBadRequest(token("not json"));
+		assertBadRequest(token("{\"s\":\"password\",\"d\":\"ASC\",\"k\":{\"password\":\"x\",\"id\":1}}"));
+		assertBadRequest(token("{\"s\":\"id\",\"d\":\"SIDEWAYS\",\"k\":{\"id\":1}}"));
+		assertBadRequest(token("{\"s\":\"id\",\"d\":\"ASC\",\"k\":{\"id\":\"abc\"}}"));
+	}
+
+	@Test
+	void decodeRejectsKeysThatDoNotMatchTheSort() {
+		assertBadRequest(token("{\"s\":\"username\",\"d\":\"ASC\",\"k\":{}}"));
+		assertBadRequest(token("{\"s\":\"username\",\"d\":\"ASC\",\"k\":{\"username\":\"bob\"}}"));
+		assertBadRequest(token("{\"s\":\"username\",\"d\":\"ASC\",\"k\":{\"id\":1}}"));
+		assertBadRequest(token("{\"s\":\"id\",\"d\":\"ASC\",\"k\":{\"id\":1,\"username\":\"bob\"}}"));
+	}
+
+	private static String token(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertBadRequest(String token) {
+		assertThatThrownBy(() -> KeysetCursor.decode(token, FIELDS))
+				.isInstanceOf(ApiException.class)
+				.extracting(e -> ((ApiException) e).getStatus())
+				.isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+}
@@ -0,0 +1,116 @@
+package dev.api.auth.authservice.common.entities.search;
+
+import dev.api.auth.authservice.api.users.User;
+import dev.api.auth.authservice.api.users.UserRepository;
+import dev.api.auth.authservice.common.exceptions.ApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class SearchSpecificationsTests {
+
+	private static final Set<String> FIELDS = Set.of("id", "username", "email", "role");
+
+	@SpringBootApplication(scanBasePackages = "none")
+	@EntityScan(basePackageClasses = User.class)
+	@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+	static class TestApplication {
+	}
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@BeforeEach
+	void createUsers() {
+		userRepository.saveAll(List.of(
+				new User("alice", "alice@example.com", "hash", "USER"),
+				new User("al_ice", "al_ice@example.com", "hash", "USER"),
+				new User("100%bob", "bob@example.com", "hash", "ADMIN"),
+				new User("back\\slash", "backslash@example.com", "hash", "USER")
+		));
+	}
+
+	@Test
+	void likeMatchesContainedText() {
+		assertThat(usernames(filter("username", "like", "lic"))).containsExactlyInAnyOrder("alice");
+	}
+
+	@Test
+	void likeTreatsWildcardsLiterally() {
+		assertThat(usernames(filter("username", "LIKE", "l_i"))).containsExactly("al_ice");
+		assertThat(usernames(filter("username", "LIKE", "0%b"))).containsExactly("100%bob");
+		assertThat(usernames(filter("username", "LIKE", "%"))).containsExactly("100%bob");
+		assertThat(usernames(filter("username", "LIKE", "k\\s"))).containsExactly("back\\slash");
+	}
+
+	@Test
+	void comparisonAndListOperatorsConvertValues() {
+		assertThat(usernames(filter("role", "=", "ADMIN"))).containsExactly("100%bob");
+		assertThat(usernames(filter("role", "IN", List.of("ADMIN", "NONE")))).containsExactly("100%bob");
+		assertThat(usernames(new SearchCriteria.Filter("id", "IS NOT NULL", null))).hasSize(4);
+	}
+
+	@Test
+	void nestedFiltersCombine() {
+		SearchCriteria.Filter or = new SearchCriteria.Filter(null, "OR", List.of(
+				filter("username", "LIKE", "bob"),
+				Map.of("field", "username", "operator", "LIKE", "value", "slash")
+		));
+
+		assertThat(usernames(or)).containsExactlyInAnyOrder("100%bob", "back\\slash");
+	}
+
+	@Test
+	void unknownFieldsAndOperatorsAreBadRequests() {
+		assertBadRequest(() -> usernames(filter("password_hash", "=", "x")));
+		assertBadRequest(() -> usernames(filter("username", "SOUNDS LIKE", "x")));
+		assertBadRequest(() -> usernames(filter("id", "=", "not a number")));
+		assertBadRequest(() -> usernames(filter("id", "BETWEEN", List.of(1))));
+	}
+
+	@Test
+	void pageableIsOneBasedBoundedAndEndsWithIdTiebreaker() {
+		SearchCriteria criteria = new SearchCriteria(null,
+				new SearchCriteria.Sorter[]{new SearchCriteria.Sorter("username", "desc")}, 2, 10_000);
+
+		Pageable pageable = SearchSpecifications.pageable(criteria, FIELDS);
+
+		assertThat(pageable.getPageNumber()).isEqualTo(1);
+		assertThat(pageable.getPageSize()).isLessThan(10_000);
+		assertThat(pageable.getSort()).isEqualTo(Sort.by(Sort.Order.desc("username"), Sort.Order.asc("id")));
+		assertBadRequest(() -> SearchSpecifications.sort(
+				new SearchCriteria.Sorter[]{new SearchCriteria.Sorter("username", "sideways")}, FIELDS));
+	}
+
+	private List<String> usernames(SearchCriteria.Filter filter) {
+		Specification<User> spec = SearchSpecifications.from(new SearchCriteria.Filter[]{filter}, FIELDS);
+		return userRepository.findAll(spec).stream().map(User::getUsername).toList();
+	}
+
+	private static SearchCriteria.Filter filter(String field, String operator, Object value) {
+		return new SearchCriteria.Filter(field, operator, value);
+	}
+
+	private static void assertBadRequest(Runnable call) {
+		assertThatThrownBy(call::run).isInstanceOf(ApiException.class);
+	}
+}
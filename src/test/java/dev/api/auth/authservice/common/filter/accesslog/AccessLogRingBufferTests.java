@@ -0,0 +1,140 @@
+package dev.api.auth.authservice.common.filter.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogRingBufferTests {
+
+	@Test
+	void capacityIsRoundedUpToAPowerOfTwo() {
+		assertThat(fill(new AccessLogRingBuffer(8))).isEqualTo(8);
+		assertThat(fill(new AccessLogRingBuffer(5))).isEqualTo(8);
+		assertThat(fill(new AccessLogRingBuffer(9))).isEqualTo(16);
+	}
+
+	@Test
+	void claimFailsWhenFullAndSucceedsAfterRelease() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			buffer.publish(buffer.claim());
+		}
+		assertThat(buffer.claim()).isEqualTo(-1);
+
+		long polled = buffer.poll();
+		assertThat(buffer.claim()).isEqualTo(-1);
+		buffer.release(polled);
+
+		assertThat(buffer.claim()).isEqualTo(4);
+	}
+
+	@Test
+	void pollSeesOnlyPublishedRecordsInClaimOrder() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+		long first = buffer.claim();
+		long second = buffer.claim();
+		buffer.slot(second).uri = "/second";
+		buffer.publish(second);
+
+		assertThat(buffer.poll()).as("first claim not published yet").isEqualTo(-1);
+
+		buffer.slot(first).uri = "/first";
+		buffer.publish(first);
+
+		long polled = buffer.poll();
+		assertThat(buffer.slot(polled).uri).isEqualTo("/first");
+		buffer.release(polled);
+		polled = buffer.poll();
+		assertThat(buffer.slot(polled).uri).isEqualTo("/second");
+		buffer.release(polled);
+		assertThat(buffer.poll()).isEqualTo(-1);
+	}
+
+	@Test
+	void slotsAreReusedAcrossWraps() {
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+		List<AccessLogRecord> firstLap = List.of(buffer.slot(0), buffer.slot(1), buffer.slot(2), buffer.slot(3));
+
+		for (long expected = 0; expected < 10; expected++) {
+			long position = buffer.claim();
+			assertThat(position).isEqualTo(expected);
+			assertThat(buffer.slot(position)).isSameAs(firstLap.get((int) (expected % 4)));
+			buffer.slot(position).status = (int) expected;
+			buffer.publish(position);
+			long polled = buffer.poll();
+			assertThat(buffer.slot(polled).status).isEqualTo((int) expected);
+			buffer.release(polled);
+		}
+	}
+
+	@Test
+	void concurrentProducersLoseOrDuplicateNothing() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 5_000;
+		AccessLogRingBuffer buffer = new AccessLogRingBuffer(64);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			threads.add(Thread.ofPlatform().start(() -> {
+				awaitQuietly(start);
+				for (int i = 0; i < perProducer; i++) {
+					long position;
+					while ((position = buffer.claim()) < 0) {
+						Thread.yield();
+					}
+					AccessLogRecord record = buffer.slot(position);
+					record.timestampMillis = producer;
+					record.durationMicros = i;
+					buffer.publish(position);
+				}
+			}));
+		}
+
+		ConcurrentHashMap.KeySetView<Long, Boolean> seen = ConcurrentHashMap.newKeySet();
+		long[] lastPerProducer = {-1, -1, -1, -1};
+		boolean ordered = true;
+		start.countDown();
+		while (seen.size() < producers * perProducer) {
+			long position = buffer.poll();
+			if (position < 0) {
+				Thread.yield();
+				continue;
+			}
+			AccessLogRecord record = buffer.slot(position);
+			int producer = (int) record.timestampMillis;
+			ordered &= record.durationMicros > lastPerProducer[producer];
+			lastPerProducer[producer] = record.durationMicros;
+			assertThat(seen.add(record.timestampMillis * perProducer + record.durationMicros)).isTrue();
+			buffer.release(position);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(seen).hasSize(producers * perProducer);
+		assertThat(ordered).as("records of one producer arrive in order").isTrue();
+		assertThat(buffer.poll()).isEqualTo(-1);
+	}
+
+	private static int fill(AccessLogRingBuffer buffer) {
+		int claimed = 0;
+		while (buffer.claim() >= 0) {
+			claimed++;
+		}
+		return claimed;
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
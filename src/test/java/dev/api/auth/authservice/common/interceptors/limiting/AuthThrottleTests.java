@@ -0,0 +1,99 @@
+package dev.api.auth.authservice.common.interceptors.limiting;
+
+import dev.api.auth.authservice.common.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthThrottleTests {
+
+	private static final String VICTIM = "victim@example.com";
+	private static final String VICTIM_IP = "10.0.0.1";
+
+	private AuthThrottleProperties props;
+	private AuthThrottle throttle;
+
+	@BeforeEach
+	void setUp() {
+		props = new AuthThrottleProperties();
+		props.setPerEmail(3);
+		props.setPerEmailFailures(10);
+		props.setLockoutThreshold(2);
+		props.setLockoutBase(Duration.ofMinutes(1));
+		throttle = new AuthThrottle(props, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void repeatedFailuresLockTheClientOutOfTheEmail() {
+		for (int i = 0; i < props.getLockoutThreshold(); i++) {
+			throttle.checkLogin(VICTIM, "10.0.0.2");
+			throttle.recordFailure(VICTIM, "10.0.0.2");
+		}
+
+		assertThatThrownBy(() -> throttle.checkLogin(VICTIM, "10.0.0.2"))
+				.isInstanceOf(RateLimitExceededException.class)
+				.hasMessageContaining("failed attempts")
+				.satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfter()).isPositive());
+		assertThatCode(() -> throttle.checkLogin(VICTIM, VICTIM_IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void successClearsTheFailureHistory() {
+		throttle.recordFailure(VICTIM, VICTIM_IP);
+		throttle.recordSuccess(VICTIM, VICTIM_IP);
+		throttle.recordFailure(VICTIM, VICTIM_IP);
+
+		assertThatCode(() -> throttle.checkLogin(VICTIM, VICTIM_IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void attemptsFromOtherAddressesDoNotSpendTheVictimsBucket() {
+		for (int ip = 0; ip < 50; ip++) {
+			for (int i = 0; i < props.getPerEmail(); i++) {
+				throttle.checkLogin(VICTIM, "192.168.0." + ip);
+			}
+		}
+
+		assertThatCode(() -> throttle.checkLogin(VICTIM, VICTIM_IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void perAddressBucketLimitsOneClient() {
+		for (int i = 0; i < props.getPerEmail(); i++) {
+			throttle.checkLogin(VICTIM, VICTIM_IP);
+		}
+
+		assertThatThrownBy(() -> throttle.checkLogin(VICTIM, VICTIM_IP))
+				.isInstanceOf(RateLimitExceededException.class)
+				.hasMessageContaining("requests for this account");
+	}
+
+	@Test
+	void failuresFromManyAddressesSpendTheEmailsFailureBudget() {
+		for (int ip = 0; ip < props.getPerEmailFailures(); ip++) {
+			throttle.checkLogin(VICTIM, "192.168.0." + ip);
+			throttle.recordFailure(VICTIM, "192.168.0." + ip);
+		}
+
+		assertThatThrownBy(() -> throttle.checkLogin(VICTIM, "192.168.1.1"))
+				.isInstanceOf(RateLimitExceededException.class)
+				.hasMessageContaining("failed attempts for this account");
+		assertThatCode(() -> throttle.checkLogin("other@example.com", "192.168.1.1")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void emailsAreNormalized() {
+		for (int i = 0; i < props.getPerEmail(); i++) {
+			throttle.checkCredential(i % 2 == 0 ? VICTIM : "  Victim@Example.COM ");
+		}
+
+		assertThatThrownBy(() -> throttle.checkCredential(VICTIM))
+				.isInstanceOf(RateLimitExceededException.class);
+	}
+}
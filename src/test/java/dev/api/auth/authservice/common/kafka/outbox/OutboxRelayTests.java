@@ -0,0 +1,198 @@
+package dev.api.auth.authservice.common.kafka.outbox;
+
+import dev.api.auth.authservice.common.kafka.KafkaPublisherProperties;
+import dev.api.auth.authservice.common.kafka.KafkaService;
+import dev.api.auth.authservice.common.lock.SchedulerLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relays batches through a real {@link KafkaService} backed by a {@link MockProducer}
+ * whose acknowledgements the tests complete by hand.
+ */
+class OutboxRelayTests {
+
+	private static final long DELIVERY_TIMEOUT_MS = 300;
+
+	private MockProducer<String, byte[]> producer;
+	private OutboxEventRepository repository;
+	private OutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		producer = new MockProducer<>(false, null, new StringSerializer(), new ByteArraySerializer()) {
+			@Override
+			public void close(Duration timeout) {
+				// shared by every send, like the factory's cached producer
+			}
+		};
+		MockProducerFactory<String, byte[]> producerFactory = new MockProducerFactory<>(() -> producer) {
+			@Override
+			public Map<String, Object> getConfigurationProperties() {
+				return Map.of(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, String.valueOf(DELIVERY_TIMEOUT_MS));
+			}
+		};
+		KafkaPublisherProperties publisherProps = new KafkaPublisherProperties();
+		publisherProps.setAcquireTimeout(Duration.ofMillis(50));
+		KafkaService kafkaService = new KafkaService(new KafkaTemplate<>(producerFactory), publisherProps, new SimpleMeterRegistry());
+
+		OutboxProperties props = new OutboxProperties();
+		props.setSendTimeoutMargin(Duration.ofMillis(50));
+		repository = mock(OutboxEventRepository.class);
+		relay = new OutboxRelay(repository, kafkaService, mock(SchedulerLock.class), props, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void deliveredEventsAreDeleted() {
+		List<OutboxEvent> batch = List.of(event(1, "a"), event(2, "b"), event(3, "a"));
+		when(repository.findDue(any(), anyInt())).thenReturn(batch);
+
+		CompletableFuture<Integer> run = relayInBackground();
+		acknowledge(3);
+
+		assertThat(run.join()).isEqualTo(3);
+		assertThat(producer.history()).extracting(ProducerRecord::value)
+				.extracting(v -> new String(v, StandardCharsets.UTF_8))
+				.containsExactly("1", "2", "3");
+		assertThat(deleted()).containsExactlyInAnyOrder(1L, 2L, 3L);
+		assertThat(saved()).isEmpty();
+	}
+
+	@Test
+	void failedSendStopsTheRestOfItsKey() {
+		OutboxEvent a1 = event(1, "a");
+		OutboxEvent b1 = event(2, "b");
+		OutboxEvent a2 = event(3, "a");
+		when(repository.findDue(any(), anyInt())).thenReturn(List.of(a1, b1, a2));
+
+		CompletableFuture<Integer> run = relayInBackground();
+		awaitSent(2);
+		producer.errorNext(new RuntimeException("broker down"));
+		producer.completeNext();
+		run.join();
+
+		assertThat(producer.history()).hasSize(2);
+		assertThat(deleted()).containsExactly(2L);
+		assertThat(saved()).containsExactly(a1, a2);
+		assertThat(a1.getAttempts()).isEqualTo(1);
+		assertThat(a1.getNextAttemptAt()).isAfter(Instant.now());
+		assertThat(a2.getAttempts()).isZero();
+		assertThat(a2.getNextAttemptAt()).isEqualTo(a1.getNextAttemptAt());
+	}
+
+	@Test
+	void failedLastAttemptIsDeadLettered() {
+		OutboxEvent exhausted = event(1, "a");
+		exhausted.setAttempts(new OutboxProperties().getMaxAttempts() - 1);
+		when(repository.findDue(any(), anyInt())).thenReturn(List.of(exhausted));
+
+		CompletableFuture<Integer> run = relayInBackground();
+		awaitSent(1);
+		producer.errorNext(new RuntimeException("broker down"));
+		awaitSent(2);
+		producer.completeNext();
+		run.join();
+
+		assertThat(producer.history()).extracting(ProducerRecord::topic).containsExactly("user-events", "user-events.DLQ");
+		assertThat(deleted()).containsExactly(1L);
+		assertThat(saved()).isEmpty();
+	}
+
+	@Test
+	void failedEarlierAttemptIsNotDeadLettered() {
+		when(repository.findDue(any(), anyInt())).thenReturn(List.of(event(1, "a")));
+
+		CompletableFuture<Integer> run = relayInBackground();
+		awaitSent(1);
+		producer.errorNext(new RuntimeException("broker down"));
+		run.join();
+
+		assertThat(producer.history()).extracting(ProducerRecord::topic).containsExactly("user-events");
+		assertThat(saved()).hasSize(1);
+	}
+
+	@Test
+	void timedOutSendStopsTheRestOfItsKeyEvenIfAcknowledgedLate() throws InterruptedException {
+		OutboxEvent a1 = event(1, "a");
+		OutboxEvent a2 = event(2, "a");
+		when(repository.findDue(any(), anyInt())).thenReturn(List.of(a1, a2));
+
+		relay.relayBatch();
+		producer.completeNext();
+		Thread.sleep(100);
+
+		assertThat(producer.history()).hasSize(1);
+		assertThat(deleted()).isEmpty();
+		assertThat(saved()).containsExactly(a1, a2);
+		assertThat(a1.getLastError()).isNotNull();
+		assertThat(a2.getNextAttemptAt()).isEqualTo(a1.getNextAttemptAt());
+	}
+
+	/**
+	 * Runs a batch on its own thread, leaving the common pool free for the relay's chained sends.
+	 */
+	private CompletableFuture<Integer> relayInBackground() {
+		CompletableFuture<Integer> run = new CompletableFuture<>();
+		Thread.ofPlatform().start(() -> run.complete(relay.relayBatch()));
+		return run;
+	}
+
+	private static OutboxEvent event(long id, String key) {
+		OutboxEvent event = new OutboxEvent("user-events", key, String.valueOf(id).getBytes(StandardCharsets.UTF_8), "application/json");
+		event.setId(id);
+		return event;
+	}
+
+	private void acknowledge(int count) {
+		for (int i = 0; i < count; i++) {
+			awaitSent(i + 1);
+			producer.completeNext();
+		}
+	}
+
+	private void awaitSent(int count) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (producer.history().size() < count) {
+			assertThat(System.nanoTime()).as("records sent").isLessThan(deadline);
+			Thread.onSpinWait();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<Long> deleted() {
+		ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass(Iterable.class);
+		verify(repository).deleteAllByIdInBatch(ids.capture());
+		return (Collection<Long>) ids.getValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<OutboxEvent> saved() {
+		ArgumentCaptor<Iterable<OutboxEvent>> events = ArgumentCaptor.forClass(Iterable.class);
+		verify(repository).saveAll(events.capture());
+		return (Collection<OutboxEvent>) events.getValue();
+	}
+}
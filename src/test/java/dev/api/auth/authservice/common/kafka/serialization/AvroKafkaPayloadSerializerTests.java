@@ -0,0 +1,75 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import dev.api.auth.authservice.api.users.dtos.UserDto;
+import dev.api.auth.authservice.common.kafka.KafkaMessage;
+import dev.api.auth.authservice.common.kafka.events.tokens.AccessTokenRevokedEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserDeletedEvent;
+import dev.api.auth.authservice.common.kafka.events.users.UserUpdatedEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvroKafkaPayloadSerializerTests {
+
+	private final AvroKafkaPayloadSerializer serializer = new AvroKafkaPayloadSerializer();
+
+	@Test
+	void userEventsRoundTrip() throws IOException {
+		UserDto user = new UserDto(7L, "alice", "alice@example.com", null);
+
+		GenericRecord decoded = decode(serializer.serialize(
+				new KafkaMessage<>(KafkaMessage.KafkaMessageType.UPDATE_ENTITY, new UserUpdatedEvent(user))));
+
+		assertThat(decoded.get("type")).hasToString("UPDATE_ENTITY");
+		GenericRecord decodedUser = (GenericRecord) ((GenericRecord) decoded.get("payload")).get("user");
+		assertThat(decodedUser.get("id")).isEqualTo(7L);
+		assertThat(decodedUser.get("email")).hasToString("alice@example.com");
+		assertThat(decodedUser.get("role")).isNull();
+	}
+
+	@Test
+	void tokenRevocationsRoundTrip() throws IOException {
+		UUID jti = UUID.randomUUID();
+		Instant expiresAt = Instant.now().plus(15, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS);
+
+		GenericRecord decoded = decode(serializer.serialize(
+				new KafkaMessage<>(KafkaMessage.KafkaMessageType.REVOKE_TOKEN, new AccessTokenRevokedEvent(jti, expiresAt))));
+
+		assertThat(decoded.get("type")).hasToString("REVOKE_TOKEN");
+		GenericRecord payload = (GenericRecord) decoded.get("payload");
+		assertThat(payload.get("jti")).hasToString(jti.toString());
+		assertThat(payload.get("expiresAt")).isEqualTo(expiresAt.toEpochMilli());
+	}
+
+	@Test
+	void everyMessageTypeHasASymbol() {
+		for (KafkaMessage.KafkaMessageType type : KafkaMessage.KafkaMessageType.values()) {
+			assertThat(serializer.serialize(new KafkaMessage<>(type, new UserDeletedEvent(1L)))).isNotEmpty();
+		}
+	}
+
+	@Test
+	void payloadsWithoutSchemaAreRejected() {
+		assertThatThrownBy(() -> serializer.serialize(new KafkaMessage<>(KafkaMessage.KafkaMessageType.EMAIL, "text")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static GenericRecord decode(byte[] bytes) throws IOException {
+		try (InputStream in = new ClassPathResource("avro/kafka-message.avsc").getInputStream()) {
+			Schema schema = new Schema.Parser().parse(in);
+			return new BinaryMessageDecoder<GenericRecord>(GenericData.get(), schema).decode(bytes);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package dev.api.auth.authservice.common.kafka.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.api.auth.authservice.common.kafka.events.KafkaTopics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KafkaPayloadSerializersTests {
+
+	private final KafkaPayloadSerializers serializers = new KafkaPayloadSerializers(List.of(
+			new JsonKafkaPayloadSerializer(new ObjectMapper()),
+			new AvroKafkaPayloadSerializer()
+	));
+
+	@Test
+	void overridesSelectTheTopicFormat() {
+		serializers.setTopics(Map.of(KafkaTopics.USER_EVENTS, "AVRO"));
+		serializers.afterPropertiesSet();
+
+		assertThat(serializers.forTopic(KafkaTopics.USER_EVENTS).format()).isEqualTo(AvroKafkaPayloadSerializer.FORMAT);
+		assertThat(serializers.forTopic(KafkaTopics.EMAIL_EVENTS).format()).isEqualTo(JsonKafkaPayloadSerializer.FORMAT);
+		assertThat(serializers.forTopic("unlisted").format()).isEqualTo(JsonKafkaPayloadSerializer.FORMAT);
+	}
+
+	@Test
+	void revocationsCannotLeaveJson() {
+		serializers.setTopics(Map.of(KafkaTopics.TOKEN_REVOCATIONS, "avro"));
+
+		assertThatThrownBy(serializers::afterPropertiesSet)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining(KafkaTopics.TOKEN_REVOCATIONS);
+	}
+
+	@Test
+	void revocationsMayBeSetToJsonExplicitly() {
+		serializers.setTopics(Map.of(KafkaTopics.TOKEN_REVOCATIONS, "json"));
+		serializers.afterPropertiesSet();
+
+		assertThat(serializers.forTopic(KafkaTopics.TOKEN_REVOCATIONS).format()).isEqualTo(JsonKafkaPayloadSerializer.FORMAT);
+	}
+}
@@ -0,0 +1,109 @@
+package dev.api.auth.authservice.security.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+	private static final Random RANDOM = new Random(42);
+
+	@Test
+	void createSizesBitsAndHashesForTheRate() {
+		BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+		assertThat(filter.bits()).isEqualTo(9_585_059L);
+		assertThat(filter.hashes()).isEqualTo(7);
+		assertThat(filter.byteSize()).isEqualTo((int) ((filter.bits() + 63) / 64) * Long.BYTES);
+	}
+
+	@Test
+	void createKeepsAtLeastOneWordAndOneHash() {
+		BloomFilter filter = BloomFilter.create(0, 0.5);
+
+		assertThat(filter.bits()).isEqualTo(64);
+		assertThat(filter.hashes()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void addedIdsAreAlwaysFound() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		List<UUID> ids = randomIds(10_000);
+
+		ids.forEach(filter::put);
+
+		assertThat(ids).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTarget() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		randomIds(10_000).forEach(filter::put);
+
+		long falsePositives = randomIds(100_000).stream().filter(filter::mightContain).count();
+
+		assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = BloomFilter.create(100, 0.01);
+
+		assertThat(randomIds(1_000)).noneMatch(filter::mightContain);
+	}
+
+	@Test
+	void concurrentPutsAreNotLost() {
+		BloomFilter filter = BloomFilter.create(40_000, 0.01);
+		List<UUID> ids = randomIds(40_000);
+
+		IntStream.range(0, ids.size()).parallel().forEach(i -> filter.put(ids.get(i)));
+
+		assertThat(ids).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void writeToFollowsTheDocumentedBitLayout() {
+		BloomFilter filter = BloomFilter.create(100, 0.01);
+		UUID id = new UUID(RANDOM.nextLong(), RANDOM.nextLong());
+		filter.put(id);
+
+		ByteBuffer buffer = ByteBuffer.allocate(filter.byteSize());
+		filter.writeTo(buffer);
+		buffer.flip();
+
+		long h1 = fmix64(id.getMostSignificantBits());
+		long h2 = fmix64(id.getLeastSignificantBits()) | 1;
+		int set = 0;
+		for (int i = 0; i < filter.hashes(); i++) {
+			long bit = Math.floorMod(h1 + i * h2, filter.bits());
+			assertThat(buffer.getLong((int) (bit / 64) * Long.BYTES) & (1L << (bit % 64))).isNotZero();
+		}
+		while (buffer.hasRemaining()) {
+			set += Long.bitCount(buffer.getLong());
+		}
+		assertThat(set).isBetween(1, filter.hashes());
+	}
+
+	/**
+	 * The MurmurHash3 finalizer, restated from the documented scheme a resource server would implement.
+	 */
+	private static long fmix64(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	private static List<UUID> randomIds(int count) {
+		return IntStream.range(0, count).mapToObj(i -> new UUID(RANDOM.nextLong(), RANDOM.nextLong())).toList();
+	}
+}